@@ -0,0 +1,56 @@
+package com.flashtix.backend.config;
+
+import com.flashtix.backend.service.AdmissionControl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Puts AdmissionControl in front of every endpoint that starts a booking.
+// Requests without a numeric userId fall through to the controller's own validation;
+// the (first) ticket id picks the event whose waiting room the request joins.
+// flashtix.admission.enabled is read at startup rather than as a bean condition, which the AOT build would fix.
+@Configuration
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Value("${flashtix.admission.enabled:false}")
+    private boolean enabled;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                String userId = request.getParameter("userId");
+                if (userId != null && userId.matches("\\d{1,18}")) {
+                    admissionControl.admit(Long.valueOf(userId), ticketIdOf(request));
+                }
+                return true;
+            }
+        }).addPathPatterns("/api/tickets/book", "/api/tickets/book/batch", "/api/tickets/book/reactive",
+                "/api/tickets/hold");
+    }
+
+    // ticketId on single-seat endpoints; /book/batch sends ticketIds, repeated or comma-separated
+    private static Long ticketIdOf(HttpServletRequest request) {
+        String ticketId = request.getParameter("ticketId");
+        if (ticketId == null) {
+            ticketId = request.getParameter("ticketIds");
+        }
+        if (ticketId == null) {
+            return null;
+        }
+        String first = ticketId.split(",", 2)[0].strip();
+        return first.matches("\\d{1,18}") ? Long.valueOf(first) : null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.flashtix.backend.config;
+
+import com.flashtix.backend.service.InMemoryOutboxSink;
+import com.flashtix.backend.service.LocalSeatLock;
+import com.flashtix.backend.service.LockStrategy;
+import com.flashtix.backend.service.LoggingOutboxSink;
+import com.flashtix.backend.service.OutboxSink;
+import com.flashtix.backend.service.RedisSeatLock;
+import com.flashtix.backend.service.SeatLockStrategy;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+// Picks the seat lock and outbox sink from the properties when the context starts.
+// Every implementation is a bean and these methods choose among them at runtime: an @ConditionalOnProperty
+// choice would be fixed by the Spring AOT build (startup profile) and ignore what the node is started with.
+@Configuration
+public class StrategyConfig {
+
+    @Bean
+    @Primary
+    public SeatLockStrategy seatLockStrategy(@Value("${flashtix.lock.strategy:redis}") LockStrategy strategy,
+                                             RedisSeatLock redisSeatLock, LocalSeatLock localSeatLock) {
+        return switch (strategy) {
+            case REDIS -> redisSeatLock;
+            case LOCAL -> localSeatLock;
+        };
+    }
+
+    // Any value other than log or memory names the application's own OutboxSink bean
+    @Bean
+    @Primary
+    public OutboxSink outboxSink(@Value("${flashtix.outbox.sink:log}") String sink, BeanFactory beanFactory) {
+        return switch (sink) {
+            case "log" -> beanFactory.getBean(LoggingOutboxSink.class);
+            case "memory" -> beanFactory.getBean(InMemoryOutboxSink.class);
+            default -> beanFactory.getBean(sink, OutboxSink.class);
+        };
+    }
+}
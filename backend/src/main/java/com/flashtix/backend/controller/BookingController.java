@@ -1,17 +1,34 @@
 package com.flashtix.backend.controller;
 
+import com.flashtix.backend.dto.SeatAvailability;
+import com.flashtix.backend.dto.SeatView;
+import com.flashtix.backend.entity.Event;
 import com.flashtix.backend.entity.Ticket;
-import com.flashtix.backend.entity.TicketStatus;
 import com.flashtix.backend.repository.TicketRepository;
+import com.flashtix.backend.service.EventService;
+import com.flashtix.backend.service.IdempotencyStore;
+import com.flashtix.backend.service.ReactiveBookingService;
+import com.flashtix.backend.service.SeatDeltaBroadcaster;
+import com.flashtix.backend.service.SeatMapCache;
 import com.flashtix.backend.service.TicketService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/tickets")
@@ -21,36 +38,163 @@ public class BookingController {
     @Autowired
     private TicketService ticketService;
 
+    @Autowired
+    private ReactiveBookingService reactiveBookingService;
+
     @Autowired
     private TicketRepository ticketRepository;
 
+    @Autowired
+    private SeatMapCache seatMapCache;
+
+    @Autowired
+    private SeatDeltaBroadcaster seatDeltaBroadcaster;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
     @PostMapping("/seed")
     public ResponseEntity<String> seedTickets() {
         if (ticketRepository.count() > 0) {
             return ResponseEntity.ok("Database already has tickets.");
         }
-        for (int i = 1; i <= 100; i++) {
-            Ticket t = new Ticket();
-            t.setSeatNumber("Seat-" + i);
-            t.setStatus(TicketStatus.AVAILABLE);
-            ticketRepository.save(t);
-        }
-        return ResponseEntity.ok("Created 100 Seats!");
+        // Demo data only; real on-sales are created through POST /api/events
+        Event event = eventService.createEvent("Demo Event", null, null, 100);
+        return ResponseEntity.ok("Created 100 Seats for event " + event.getId() + "!");
+    }
+
+    @Operation(summary = "Seat map",
+               description = "Every seat of the event with its current status, served from the per-instance near cache backed by Redis")
+    @ApiResponse(responseCode = "200", description = "Seats ordered by id")
+    @GetMapping("/seats")
+    public ResponseEntity<Collection<SeatView>> getSeatMap(
+            @RequestParam @Positive(message = "Event ID must be positive") Long eventId) {
+        // A one-second max-age lets browsers and CDNs absorb repeat polls too
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.SECONDS))
+                .body(seatMapCache.getSeatMap(eventId));
+    }
+
+    @Operation(summary = "Seat availability", description = "Seat counts per status, from the same near cache as the seat map")
+    @ApiResponse(responseCode = "200", description = "Available, held and sold counts")
+    @GetMapping("/availability")
+    public ResponseEntity<SeatAvailability> getAvailability(
+            @RequestParam @Positive(message = "Event ID must be positive") Long eventId) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.SECONDS))
+                .body(seatMapCache.getAvailability(eventId));
+    }
+
+    @Operation(summary = "Stream seat changes",
+               description = "Server-sent events for one event: a 'seats' event every ~100ms with [[ticketId,\"STATUS\"],...] for seats that changed, " +
+                             "and a 'reset' event when the client should refetch /seats")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream opened"),
+        @ApiResponse(responseCode = "409", description = "Conflict: Instance is at its subscriber limit, poll /seats instead")
+    })
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatChanges(
+            @RequestParam @Positive(message = "Event ID must be positive") Long eventId) {
+        return seatDeltaBroadcaster.subscribe(eventId);
     }
 
     @Operation(summary = "Book a ticket", 
-               description = "Handles high concurrency using Redis Distributed Locks + Optimistic Locking with Auto-Retry")
+               description = "Handles high concurrency using Redis Distributed Locks + a conditional UPDATE that sells the seat only while it is available. " +
+                             "With an Idempotency-Key header, retries of a successful booking return the original ticket")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Booking Successful"),
+        @ApiResponse(responseCode = "200", description = "Booking Successful (or replay of an earlier success with the same key)"),
         @ApiResponse(responseCode = "400", description = "Invalid Input"),
-        @ApiResponse(responseCode = "409", description = "Conflict: Ticket sold or locked")
+        @ApiResponse(responseCode = "409", description = "Conflict: Ticket sold or locked, or key already used for another ticket")
     })
     @PostMapping("/book")
     public ResponseEntity<Ticket> bookTicket(
             @RequestParam @Positive(message = "Ticket ID must be positive") Long ticketId,
-            @RequestParam @Positive(message = "User ID must be positive") Long userId) {
+            @RequestParam @Positive(message = "User ID must be positive") Long userId,
+            @RequestHeader(value = "Idempotency-Key", required = false)
+            @Size(min = 1, max = 128, message = "Idempotency key must be 1-128 characters") String idempotencyKey) {
         
-        Ticket bookedTicket = ticketService.bookTicket(ticketId, userId);
+        Ticket bookedTicket = idempotencyKey == null
+                ? ticketService.bookTicket(ticketId, userId)
+                : idempotencyStore.execute(idempotencyKey, ticketId, userId, () -> ticketService.bookTicket(ticketId, userId));
         return ResponseEntity.ok(bookedTicket);
     }
+
+    @Operation(summary = "Book several tickets at once",
+               description = "All-or-nothing group booking: every seat is locked in one Redis call and sold in one transaction")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "All seats booked"),
+        @ApiResponse(responseCode = "400", description = "Invalid Input"),
+        @ApiResponse(responseCode = "409", description = "Conflict: at least one seat sold or locked, nothing was booked")
+    })
+    @PostMapping("/book/batch")
+    public ResponseEntity<List<Ticket>> bookTickets(
+            @RequestParam @NotEmpty @Size(max = 10, message = "At most 10 seats per order")
+            List<@Positive(message = "Ticket ID must be positive") Long> ticketIds,
+            @RequestParam @Positive(message = "User ID must be positive") Long userId) {
+
+        List<Ticket> bookedTickets = ticketService.bookTickets(ticketIds, userId);
+        return ResponseEntity.ok(bookedTickets);
+    }
+
+    @Operation(summary = "Hold a ticket during checkout",
+               description = "Moves an AVAILABLE seat to HELD for this user until holdExpiresAt; unconfirmed holds are released automatically")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Seat held"),
+        @ApiResponse(responseCode = "400", description = "Invalid Input"),
+        @ApiResponse(responseCode = "409", description = "Conflict: Ticket sold or already held")
+    })
+    @PostMapping("/hold")
+    public ResponseEntity<Ticket> holdTicket(
+            @RequestParam @Positive(message = "Ticket ID must be positive") Long ticketId,
+            @RequestParam @Positive(message = "User ID must be positive") Long userId) {
+
+        return ResponseEntity.ok(ticketService.holdTicket(ticketId, userId));
+    }
+
+    @Operation(summary = "Confirm a held ticket", description = "Sells a seat the user is currently holding")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Booking Successful"),
+        @ApiResponse(responseCode = "400", description = "Invalid Input"),
+        @ApiResponse(responseCode = "409", description = "Conflict: No active hold for this user (expired or released)")
+    })
+    @PostMapping("/confirm")
+    public ResponseEntity<Ticket> confirmHold(
+            @RequestParam @Positive(message = "Ticket ID must be positive") Long ticketId,
+            @RequestParam @Positive(message = "User ID must be positive") Long userId) {
+
+        return ResponseEntity.ok(ticketService.confirmHold(ticketId, userId));
+    }
+
+    @Operation(summary = "Release a held ticket", description = "Gives a held seat back before its hold expires")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Seat available again"),
+        @ApiResponse(responseCode = "400", description = "Invalid Input"),
+        @ApiResponse(responseCode = "409", description = "Conflict: No active hold for this user")
+    })
+    @PostMapping("/release")
+    public ResponseEntity<Ticket> releaseHold(
+            @RequestParam @Positive(message = "Ticket ID must be positive") Long ticketId,
+            @RequestParam @Positive(message = "User ID must be positive") Long userId) {
+
+        return ResponseEntity.ok(ticketService.releaseHold(ticketId, userId));
+    }
+
+    @Operation(summary = "Book a ticket (non-blocking)",
+               description = "Same semantics as /book, but the request thread is released while Redis and the database work")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Booking Successful"),
+        @ApiResponse(responseCode = "400", description = "Invalid Input"),
+        @ApiResponse(responseCode = "409", description = "Conflict: Ticket sold, locked or server saturated")
+    })
+    @PostMapping("/book/reactive")
+    public Mono<ResponseEntity<Ticket>> bookTicketReactive(
+            @RequestParam @Positive(message = "Ticket ID must be positive") Long ticketId,
+            @RequestParam @Positive(message = "User ID must be positive") Long userId) {
+
+        return reactiveBookingService.bookTicket(ticketId, userId)
+                .map(ResponseEntity::ok);
+    }
 }
@@ -0,0 +1,90 @@
+package com.flashtix.backend.controller;
+
+import com.flashtix.backend.dto.SeatImportResult;
+import com.flashtix.backend.entity.Event;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.repository.EventRepository;
+import com.flashtix.backend.service.EventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/events")
+@Validated
+public class EventController {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Operation(summary = "Create an event", description = "Creates the event and its seats (Seat-1..Seat-n) in a dedicated tickets partition")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event created"),
+        @ApiResponse(responseCode = "400", description = "Invalid Input")
+    })
+    @PostMapping
+    public ResponseEntity<Event> createEvent(
+            @RequestParam @NotBlank(message = "Event name is required") String name,
+            @RequestParam(required = false) String venue,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startsAt,
+            @RequestParam @Positive(message = "Seat count must be positive")
+            @Max(value = 100_000, message = "At most 100000 seats per event") Integer seats) {
+
+        return ResponseEntity.ok(eventService.createEvent(name, venue, startsAt, seats));
+    }
+
+    @Operation(summary = "Import an event from a seat manifest",
+               description = "Streams a CSV body (seat number in the first column, optional seat_number header) into a new event. " +
+                             "Postgres loads it with COPY in chunks and, in inventory mode, the Redis seat hash is pre-warmed in the same pass")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event created and seats loaded"),
+        @ApiResponse(responseCode = "400", description = "Invalid Input"),
+        @ApiResponse(responseCode = "409", description = "Conflict: Invalid, duplicate or too many seats; nothing was created")
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<SeatImportResult> importEvent(
+            @RequestParam @NotBlank(message = "Event name is required") String name,
+            @RequestParam(required = false) String venue,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startsAt,
+            InputStream manifest) {
+
+        // The body is read straight off the request stream, never buffered whole
+        return ResponseEntity.ok(eventService.importEvent(name, venue, startsAt,
+                new InputStreamReader(manifest, StandardCharsets.UTF_8)));
+    }
+
+    @Operation(summary = "List events")
+    @GetMapping
+    public ResponseEntity<List<Event>> listEvents() {
+        return ResponseEntity.ok(eventRepository.findAll());
+    }
+
+    @Operation(summary = "Get an event")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event found"),
+        @ApiResponse(responseCode = "409", description = "Conflict: Unknown event")
+    })
+    @GetMapping("/{eventId}")
+    public ResponseEntity<Event> getEvent(@PathVariable @Positive(message = "Event ID must be positive") Long eventId) {
+        return ResponseEntity.ok(eventRepository.findById(eventId)
+                .orElseThrow(() -> new TicketBookingException("Invalid Event ID")));
+    }
+}
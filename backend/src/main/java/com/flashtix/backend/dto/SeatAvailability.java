@@ -0,0 +1,7 @@
+package com.flashtix.backend.dto;
+
+/**
+ * Seat counts per status, as shown on the event page.
+ */
+public record SeatAvailability(long available, long held, long sold, long total) {
+}
@@ -0,0 +1,9 @@
+package com.flashtix.backend.dto;
+
+import com.flashtix.backend.entity.Event;
+
+/**
+ * Outcome of loading an event's seat manifest.
+ */
+public record SeatImportResult(Event event, long seats, long elapsedMs) {
+}
@@ -0,0 +1,9 @@
+package com.flashtix.backend.dto;
+
+import com.flashtix.backend.entity.TicketStatus;
+
+/**
+ * Read-only view of one seat for the seat map; carries no user or version data.
+ */
+public record SeatView(Long id, String seatNumber, TicketStatus status) {
+}
@@ -0,0 +1,39 @@
+package com.flashtix.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A booking fact waiting to be handed to downstream consumers (email, payments, analytics).
+ * Written in the same transaction as the ticket change, deleted once {@code OutboxRelay} has
+ * published it; the id lets consumers drop the occasional redelivery. {@code claimedUntil} is the
+ * relay worker's lease while it publishes: other workers skip the row until it runs out.
+ */
+@Entity
+@Table(name = "booking_outbox")
+@Data
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxEventType type;
+
+    @Column(nullable = false)
+    private Long ticketId;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime claimedUntil;
+}
@@ -0,0 +1,6 @@
+package com.flashtix.backend.entity;
+
+public enum OutboxEventType {
+    // A seat was sold: by /book, a group order, a confirmed hold or a write-behind flush
+    TICKET_SOLD
+}
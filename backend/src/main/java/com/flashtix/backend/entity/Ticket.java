@@ -2,6 +2,7 @@ package com.flashtix.backend.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.PartitionKey;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -9,10 +10,14 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tickets", indexes = {
-    @Index(name = "idx_status", columnList = "status"),
-    @Index(name = "idx_user_id", columnList = "user_id") // <--- FIXED
-})
+// On Postgres the table is LIST-partitioned by event_id (see schema-postgresql.sql), one partition per event
+@Table(name = "tickets",
+    uniqueConstraints = @UniqueConstraint(name = "uk_event_seat", columnNames = {"event_id", "seat_number"}),
+    indexes = {
+        @Index(name = "idx_event_status", columnList = "event_id, status"),
+        @Index(name = "idx_event_user", columnList = "event_id, user_id"),
+        @Index(name = "idx_status_hold_expires", columnList = "status, hold_expires_at")
+    })
 @EntityListeners(AuditingEntityListener.class)
 @Data
 public class Ticket {
@@ -21,7 +26,13 @@ public class Ticket {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    // Hibernate adds event_id to the WHERE clause of entity UPDATE/DELETE so Postgres prunes to one partition
+    @PartitionKey
+    @Column(nullable = false, updatable = false)
+    private Long eventId;
+
+    // Unique within an event, see uk_event_seat
+    @Column(nullable = false)
     private String seatNumber;
 
     @Enumerated(EnumType.STRING)
@@ -30,8 +41,14 @@ public class Ticket {
     
     private Long userId;
 
+    // Set while status is HELD; the hold lapses back to AVAILABLE after this instant
+    private LocalDateTime holdExpiresAt;
+
     @Version
     private Long version;
+
+    // Fencing token of the seat lock lease that last wrote the row; a lease holding an older token is refused
+    private Long fencingToken;
     
     @CreatedDate
     @Column(nullable = false, updatable = false)
@@ -2,5 +2,6 @@ package com.flashtix.backend.entity;
 
 public enum TicketStatus {
     AVAILABLE,
+    HELD,
     SOLD
 }
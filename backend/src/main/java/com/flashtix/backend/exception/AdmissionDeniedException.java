@@ -0,0 +1,17 @@
+package com.flashtix.backend.exception;
+
+import lombok.Getter;
+
+// Request turned away before booking: rate limited, or still waiting in the virtual queue
+@Getter
+public class AdmissionDeniedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+    private final Long queuePosition;
+
+    public AdmissionDeniedException(String message, long retryAfterSeconds, Long queuePosition) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.queuePosition = queuePosition;
+    }
+}
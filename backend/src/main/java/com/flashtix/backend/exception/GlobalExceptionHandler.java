@@ -3,12 +3,14 @@ package com.flashtix.backend.exception;
 import jakarta.persistence.OptimisticLockException;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.orm.jpa.JpaOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.util.DisconnectedClientHelper;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -28,6 +30,23 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    // Handles admission control: rate limited or waiting in the virtual queue
+    @ExceptionHandler(AdmissionDeniedException.class)
+    public ResponseEntity<Map<String, Object>> handleAdmissionDenied(AdmissionDeniedException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", "error");
+        body.put("message", ex.getMessage());
+        body.put("retryAfterSeconds", ex.getRetryAfterSeconds());
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        if (ex.getQueuePosition() != null) {
+            body.put("queuePosition", ex.getQueuePosition());
+            response.header("X-Queue-Position", String.valueOf(ex.getQueuePosition()));
+        }
+        return response.body(body);
+    }
+
     // Handles the Database Race Condition (Optimistic Locking failure)
     @ExceptionHandler({OptimisticLockException.class, JpaOptimisticLockingFailureException.class})
     public ResponseEntity<Map<String, String>> handleOptimisticLock(Exception ex) {
@@ -73,6 +92,11 @@ public class GlobalExceptionHandler {
     // Catches all unexpected errors
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
+        // Seat stream clients hang up all the time; the response is already committed, nothing to send
+        if (DisconnectedClientHelper.isClientDisconnectedException(ex)) {
+            log.debug("Client disconnected: {}", ex.getMessage());
+            return null;
+        }
         log.error("Unexpected error occurred", ex);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of(
@@ -1,7 +1,39 @@
 package com.flashtix.backend.exception;
 
 public class TicketBookingException extends RuntimeException {
+
+    // Why the booking was refused; metrics classify outcomes on this, never on the message text
+    public enum Reason {
+        SOLD_OUT,
+        SEAT_ON_HOLD,
+        CONTENTION,
+        REJECTED
+    }
+
+    private final Reason reason;
+
     public TicketBookingException(String message) {
+        this(Reason.REJECTED, message);
+    }
+
+    public TicketBookingException(Reason reason, String message) {
         super(message);
+        this.reason = reason;
+    }
+
+    public static TicketBookingException soldOut() {
+        return new TicketBookingException(Reason.SOLD_OUT, "Sold Out!");
+    }
+
+    public static TicketBookingException seatOnHold() {
+        return new TicketBookingException(Reason.SEAT_ON_HOLD, "Seat is on hold");
+    }
+
+    public static TicketBookingException tooManyRequests() {
+        return new TicketBookingException(Reason.CONTENTION, "Too many requests! Please try again.");
+    }
+
+    public Reason getReason() {
+        return reason;
     }
 }
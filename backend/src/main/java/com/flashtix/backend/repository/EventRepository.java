@@ -0,0 +1,9 @@
+package com.flashtix.backend.repository;
+
+import com.flashtix.backend.entity.Event;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EventRepository extends JpaRepository<Event, Long> {
+}
@@ -1,11 +1,101 @@
 package com.flashtix.backend.repository;
 
+import com.flashtix.backend.dto.SeatView;
 import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
-    // No code needed here! 
-    // Spring Boot automatically gives you methods to talk to the DB.
+    // Spring Boot automatically gives you the basic CRUD methods to talk to the DB.
+
+    // Id-only projection used to prime in-memory indexes without loading full entities
+    @Query("select t.id from Ticket t where t.status = :status")
+    List<Long> findIdsByStatus(@Param("status") TicketStatus status);
+
+    List<Ticket> findByStatus(TicketStatus status);
+
+    // --- Event-scoped reads: every query below filters on event_id first, so Postgres prunes to one partition ---
+
+    List<Ticket> findByEventId(Long eventId);
+
+    @Query("select t.id from Ticket t where t.eventId = :eventId and t.status = :status")
+    List<Long> findIdsByEventIdAndStatus(@Param("eventId") Long eventId, @Param("status") TicketStatus status);
+
+    // Seat-map projection: only the columns the read API returns, no entity hydration or dirty tracking
+    @Query("select new com.flashtix.backend.dto.SeatView(t.id, t.seatNumber, t.status) from Ticket t " +
+           "where t.eventId = :eventId order by t.id")
+    List<SeatView> findSeatMap(@Param("eventId") Long eventId);
+
+    // Ticket -> event directory lookup; the answer never changes, so callers cache it
+    @Query("select t.eventId from Ticket t where t.id = :id")
+    Optional<Long> findEventIdById(@Param("id") Long id);
+
+    @Query("select distinct t.eventId from Ticket t")
+    List<Long> findEventIds();
+
+    // Direct sale: one statement decides the race; 0 rows means the seat was sold, held, never existed,
+    // or was last written under a newer lock lease than the caller's (a stale holder is fenced off)
+    @Modifying(clearAutomatically = true)
+    @Query("update Ticket t set t.status = com.flashtix.backend.entity.TicketStatus.SOLD, t.userId = :userId, " +
+           "t.version = t.version + 1, t.updatedAt = :now, t.fencingToken = :fencingToken " +
+           "where t.id = :id and t.eventId = :eventId and t.status = com.flashtix.backend.entity.TicketStatus.AVAILABLE " +
+           "and (t.fencingToken is null or t.fencingToken < :fencingToken)")
+    int sellIfAvailable(@Param("id") Long id, @Param("eventId") Long eventId, @Param("userId") Long userId,
+                        @Param("fencingToken") long fencingToken, @Param("now") LocalDateTime now);
+
+    // --- Seat holds: single conditional UPDATEs, so concurrent holders race on the row itself.
+    // Each runs under a seat lock lease and is fenced and stamped like a sale ---
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Ticket t set t.status = com.flashtix.backend.entity.TicketStatus.HELD, t.userId = :userId, " +
+           "t.holdExpiresAt = :expiresAt, t.version = t.version + 1, t.updatedAt = :now, t.fencingToken = :fencingToken " +
+           "where t.id = :id and t.status = com.flashtix.backend.entity.TicketStatus.AVAILABLE " +
+           "and (t.fencingToken is null or t.fencingToken < :fencingToken)")
+    int holdIfAvailable(@Param("id") Long id, @Param("userId") Long userId, @Param("expiresAt") LocalDateTime expiresAt,
+                        @Param("fencingToken") long fencingToken, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Ticket t set t.status = com.flashtix.backend.entity.TicketStatus.SOLD, t.holdExpiresAt = null, " +
+           "t.version = t.version + 1, t.updatedAt = :now, t.fencingToken = :fencingToken " +
+           "where t.id = :id and t.userId = :userId and t.holdExpiresAt > :now " +
+           "and t.status = com.flashtix.backend.entity.TicketStatus.HELD " +
+           "and (t.fencingToken is null or t.fencingToken < :fencingToken)")
+    int confirmHold(@Param("id") Long id, @Param("userId") Long userId,
+                    @Param("fencingToken") long fencingToken, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Ticket t set t.status = com.flashtix.backend.entity.TicketStatus.AVAILABLE, t.userId = null, " +
+           "t.holdExpiresAt = null, t.version = t.version + 1, t.updatedAt = :now, t.fencingToken = :fencingToken " +
+           "where t.id = :id and t.userId = :userId and t.status = com.flashtix.backend.entity.TicketStatus.HELD " +
+           "and (t.fencingToken is null or t.fencingToken < :fencingToken)")
+    int releaseHold(@Param("id") Long id, @Param("userId") Long userId,
+                    @Param("fencingToken") long fencingToken, @Param("now") LocalDateTime now);
+
+    @Query("select t from Ticket t where t.id in :ids and t.holdExpiresAt <= :now " +
+           "and t.status = com.flashtix.backend.entity.TicketStatus.HELD")
+    List<Ticket> findExpiredHolds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Index range scan on (status, hold_expires_at); used by the safety sweep, never a full table scan
+    @Query("select t from Ticket t where t.holdExpiresAt <= :now " +
+           "and t.status = com.flashtix.backend.entity.TicketStatus.HELD")
+    List<Ticket> findExpiredHolds(@Param("now") LocalDateTime now, Limit limit);
+
+    // Keeps the token of the lease that placed the hold, so a sale from an even older lease stays fenced off
+    @Modifying(clearAutomatically = true)
+    @Query("update Ticket t set t.status = com.flashtix.backend.entity.TicketStatus.AVAILABLE, t.userId = null, " +
+           "t.holdExpiresAt = null, t.version = t.version + 1, t.updatedAt = :now " +
+           "where t.id in :ids and t.holdExpiresAt <= :now " +
+           "and t.status = com.flashtix.backend.entity.TicketStatus.HELD")
+    int releaseExpiredHolds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,163 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.exception.AdmissionDeniedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the booking endpoints.
+ * <p>
+ * Three gates, cheapest first:
+ * <ol>
+ *   <li>a per-user token bucket, so one client's retry loop can't flood the node;</li>
+ *   <li>a Redis waiting room per event: every user draws a queue position once, and the
+ *       event's admission cursor advances at a fixed cluster-wide rate on the Redis clock,
+ *       so each on-sale sees a steady admitted rate instead of its spike, and a quiet event
+ *       is never stuck behind a busy one;</li>
+ *   <li>a per-instance token bucket as the last guard for this node.</li>
+ * </ol>
+ * Rejections carry a Retry-After (and the queue position when waiting) so clients back off
+ * instead of hammering /book.
+ */
+@Service
+public class AdmissionControl {
+
+    static final String WAITING_ROOM_KEY_PREFIX = "flashtix:waitingroom:";
+
+    // KEYS: sequence, cursor, user position. ARGV: admit rate per second, burst, session ttl (s).
+    // Time comes from the Redis server, so clock skew between nodes can't move the shared cursor.
+    // Returns the number of users ahead: 0 means admitted.
+    static final RedisScript<Long> ADMIT_SCRIPT = RedisScript.of(
+        "local time = redis.call('time') " +
+        "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+        "local rate = tonumber(ARGV[1]) " +
+        "local pos = tonumber(redis.call('get', KEYS[3])) " +
+        "if not pos then " +
+        "  pos = redis.call('incr', KEYS[1]) " +
+        "  redis.call('set', KEYS[3], pos, 'EX', ARGV[3]) " +
+        "end " +
+        "local seq = tonumber(redis.call('get', KEYS[1]) or '0') " +
+        "local cursor = tonumber(redis.call('hget', KEYS[2], 'admitted') or ARGV[2]) " +
+        "local last = tonumber(redis.call('hget', KEYS[2], 'ts') or now) " +
+        "cursor = math.min(seq + tonumber(ARGV[2]), cursor + math.max(now - last, 0) * rate / 1000) " +
+        "redis.call('hset', KEYS[2], 'admitted', tostring(cursor), 'ts', tostring(now)) " +
+        "if pos <= cursor then return 0 end " +
+        "return math.ceil(pos - cursor)", Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisCircuitBreaker redisBreaker;
+
+    @Autowired
+    private SeatDirectory seatDirectory;
+
+    private final boolean waitingRoomEnabled;
+    private final double admitRatePerSecond;
+    private final int admitBurst;
+    private final long sessionTtlSeconds;
+    private final double userRatePerSecond;
+    private final int userBurst;
+
+    private final Cache<Long, RateLimiter> userLimiters;
+    private final RateLimiter instanceLimiter;
+    private final Counter rateLimitedCounter;
+    private final Counter queuedCounter;
+
+    public AdmissionControl(MeterRegistry registry,
+                            @Value("${flashtix.admission.waiting-room.enabled:true}") boolean waitingRoomEnabled,
+                            @Value("${flashtix.admission.waiting-room.admit-rate-per-second:500}") double admitRatePerSecond,
+                            @Value("${flashtix.admission.waiting-room.session-ttl-seconds:900}") long sessionTtlSeconds,
+                            @Value("${flashtix.admission.user-rate-per-second:2}") double userRatePerSecond,
+                            @Value("${flashtix.admission.user-burst:5}") int userBurst,
+                            @Value("${flashtix.admission.instance-rate-per-second:2000}") double instanceRatePerSecond,
+                            @Value("${flashtix.admission.instance-burst:500}") int instanceBurst,
+                            @Value("${flashtix.admission.max-tracked-users:200000}") long maxTrackedUsers) {
+        this.waitingRoomEnabled = waitingRoomEnabled;
+        this.admitRatePerSecond = admitRatePerSecond;
+        this.admitBurst = (int) Math.ceil(admitRatePerSecond);
+        this.sessionTtlSeconds = sessionTtlSeconds;
+        this.userRatePerSecond = userRatePerSecond;
+        this.userBurst = userBurst;
+
+        this.userLimiters = Caffeine.newBuilder()
+                .maximumSize(maxTrackedUsers)
+                .expireAfterAccess(Duration.ofMinutes(5))
+                .build();
+        this.instanceLimiter = new RateLimiter(instanceRatePerSecond, instanceBurst);
+
+        this.rateLimitedCounter = Counter.builder("flashtix.admission.rate.limited")
+                .description("Count of booking requests rejected by the per-user or per-instance rate limit")
+                .register(registry);
+
+        this.queuedCounter = Counter.builder("flashtix.admission.queued")
+                .description("Count of booking requests told to wait in the virtual queue")
+                .register(registry);
+    }
+
+    // The event's waiting room key names; the event id is the hash tag, so one queue stays on one Cluster slot
+    static List<String> waitingRoomKeys(Long eventId, Long userId) {
+        String prefix = WAITING_ROOM_KEY_PREFIX + "{" + eventId + "}:";
+        return List.of(prefix + "seq", prefix + "cursor", prefix + "pos:" + userId);
+    }
+
+    /**
+     * Admits one booking request or throws {@link AdmissionDeniedException}. {@code ticketId} picks the
+     * event's waiting room; without one only the rate limits apply.
+     */
+    public void admit(Long userId, Long ticketId) {
+        long userWait = userLimiters.get(userId, id -> new RateLimiter(userRatePerSecond, userBurst)).tryAcquire();
+        if (userWait > 0) {
+            rateLimitedCounter.increment();
+            throw new AdmissionDeniedException("Too many requests from this user. Please slow down.",
+                    toRetryAfterSeconds(userWait), null);
+        }
+
+        // While Redis is slow or down the waiting room is skipped; the instance bucket below still caps this node
+        Long ahead = waitingRoomEnabled && ticketId != null && redisBreaker.allowRequest()
+                ? drawQueuePosition(seatDirectory.eventOf(ticketId), userId)
+                : null;
+        if (ahead != null && ahead > 0) {
+            queuedCounter.increment();
+            throw new AdmissionDeniedException("You are in the queue. Please retry later.",
+                    Math.max(1, (long) Math.ceil(ahead / admitRatePerSecond)), ahead);
+        }
+
+        long instanceWait = instanceLimiter.tryAcquire();
+        if (instanceWait > 0) {
+            rateLimitedCounter.increment();
+            throw new AdmissionDeniedException("Server is busy. Please retry later.",
+                    toRetryAfterSeconds(instanceWait), null);
+        }
+    }
+
+    private Long drawQueuePosition(Long eventId, Long userId) {
+        long start = System.nanoTime();
+        try {
+            Long result = redisTemplate.execute(ADMIT_SCRIPT, waitingRoomKeys(eventId, userId),
+                    String.valueOf(admitRatePerSecond), String.valueOf(admitBurst), String.valueOf(sessionTtlSeconds));
+            redisBreaker.record(start, false);
+            return result;
+        } catch (DataAccessException e) {
+            redisBreaker.record(start, true);
+            return null;
+        }
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+}
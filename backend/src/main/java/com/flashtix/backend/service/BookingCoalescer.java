@@ -0,0 +1,77 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.exception.TicketBookingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Local single-flight for booking attempts on the same seat.
+ * <p>
+ * Only one booking per seat can ever succeed, so when an attempt for a ticket is already in
+ * flight on this instance, later callers don't start their own: they wait for the leader's
+ * outcome and get a 409 as soon as it is known. Redis and DB load then scale with hot seats
+ * x instances rather than with request count.
+ */
+@Component
+public class BookingCoalescer {
+
+    private final ConcurrentHashMap<Long, CompletableFuture<Ticket>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter coalescedCounter;
+
+    public BookingCoalescer(MeterRegistry registry) {
+        this.coalescedCounter = Counter.builder("flashtix.booking.coalesced")
+                .description("Count of booking attempts answered from another in-flight attempt on the same seat")
+                .register(registry);
+
+        Gauge.builder("flashtix.booking.coalesced.waiting", waiting, AtomicInteger::get)
+                .description("Booking attempts currently waiting on an in-flight attempt for the same seat")
+                .register(registry);
+    }
+
+    public Ticket execute(Long ticketId, Supplier<Ticket> attempt) {
+        CompletableFuture<Ticket> leader = new CompletableFuture<>();
+        CompletableFuture<Ticket> existing = inFlight.putIfAbsent(ticketId, leader);
+        if (existing != null) {
+            return awaitLeader(existing);
+        }
+
+        try {
+            Ticket ticket = attempt.get();
+            leader.complete(ticket);
+            return ticket;
+        } catch (RuntimeException e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(ticketId, leader);
+        }
+    }
+
+    private Ticket awaitLeader(CompletableFuture<Ticket> leader) {
+        coalescedCounter.increment();
+        waiting.incrementAndGet();
+        try {
+            leader.join();
+        } catch (CompletionException e) {
+            // Leader lost (sold out, contention, invalid id): the waiters lose for the same reason
+            if (e.getCause() instanceof TicketBookingException bookingException) {
+                throw new TicketBookingException(bookingException.getReason(), bookingException.getMessage());
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        } finally {
+            waiting.decrementAndGet();
+        }
+        // Leader won the seat, so nobody else can
+        throw TicketBookingException.soldOut();
+    }
+}
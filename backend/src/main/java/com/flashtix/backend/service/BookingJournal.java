@@ -0,0 +1,296 @@
+package com.flashtix.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind journal for bookings already won in Redis ({@link BookingMode#INVENTORY}).
+ * <p>
+ * Claims are queued in a bounded buffer and a single flusher thread writes them to
+ * Postgres as one JDBC batch per transaction, flushing when the batch is full or when
+ * the oldest entry has waited {@code flashtix.journal.flush-interval-ms}. A booking waits
+ * at most {@code flashtix.journal.append-timeout-ms} for room in a full queue; after that
+ * {@link #tryAppend} refuses it, so request threads fail fast while the database is down
+ * instead of piling up behind the flusher. On shutdown the queue is drained before the
+ * DataSource closes; anything still unwritten after a crash is recovered from the Redis
+ * inventory on the next startup.
+ */
+@Component
+@Slf4j
+public class BookingJournal implements SmartLifecycle {
+
+    private static final String UPDATE_SQL =
+        "UPDATE tickets SET status = 'SOLD', user_id = ?, version = version + 1, updated_at = ? " +
+        "WHERE id = ? AND status = 'AVAILABLE'";
+    // Outbox row for each sale, in the same transaction as the update (see OutboxRelay)
+    private static final String OUTBOX_SQL =
+        "INSERT INTO booking_outbox (type, ticket_id, event_id, user_id, created_at) " +
+        "SELECT 'TICKET_SOLD', id, event_id, user_id, ? FROM tickets WHERE id = ?";
+    private static final long FAILED_FLUSH_BACKOFF_MS = 1000;
+    // Attempts for a single booking while the database is reachable before it is set aside
+    private static final int MAX_ROW_ATTEMPTS = 3;
+
+    private record PendingBooking(long ticketId, long userId) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingBooking> queue = new LinkedBlockingQueue<>();
+    // Room in the queue; a group reserves all of its seats at once, so it is journaled whole or not at all
+    private final Semaphore capacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long appendTimeoutMs;
+
+    private final DistributionSummary batchSizeSummary;
+    private final Timer flushTimer;
+    private final Counter conflictCounter;
+    private final Counter rejectedCounter;
+    private final Counter abandonedCounter;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public BookingJournal(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry registry,
+                          @Value("${flashtix.journal.capacity:10000}") int capacity,
+                          @Value("${flashtix.journal.batch-size:20}") int batchSize,
+                          @Value("${flashtix.journal.flush-interval-ms:50}") long flushIntervalMs,
+                          @Value("${flashtix.journal.append-timeout-ms:500}") long appendTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.capacity = new Semaphore(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.appendTimeoutMs = appendTimeoutMs;
+
+        this.batchSizeSummary = DistributionSummary.builder("flashtix.journal.batch.size")
+                .description("Number of bookings written per write-behind batch")
+                .register(registry);
+
+        this.flushTimer = Timer.builder("flashtix.journal.flush.duration")
+                .description("Time taken to write one write-behind batch to the database")
+                .register(registry);
+
+        this.conflictCounter = Counter.builder("flashtix.journal.conflicts")
+                .description("Count of journaled bookings whose ticket row was no longer AVAILABLE")
+                .register(registry);
+
+        this.rejectedCounter = Counter.builder("flashtix.journal.rejected")
+                .description("Count of bookings refused because the journal stayed full for the append timeout")
+                .register(registry);
+
+        this.abandonedCounter = Counter.builder("flashtix.journal.abandoned")
+                .description("Count of bookings set aside after repeated write failures, left for recovery from Redis")
+                .register(registry);
+
+        Gauge.builder("flashtix.journal.queue.depth", queue, BlockingQueue::size)
+                .description("Bookings waiting to be written to the database")
+                .register(registry);
+    }
+
+    /**
+     * Queues the bookings of one order, all or none. Returns false when the queue stayed full for
+     * {@code append-timeout-ms}; the caller still owns the Redis claims and should give them back.
+     */
+    public boolean tryAppend(List<Long> ticketIds, long userId) {
+        List<PendingBooking> bookings = ticketIds.stream().map(id -> new PendingBooking(id, userId)).toList();
+        if (!running) {
+            // Shutting down: the flusher may already be gone, so write them ourselves
+            flushWithRetry(bookings);
+            return true;
+        }
+        try {
+            if (!capacity.tryAcquire(bookings.size(), appendTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejectedCounter.increment(bookings.size());
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        queue.addAll(bookings);
+        return true;
+    }
+
+    // Startup recovery: nothing is waiting on a response, so it waits for room however long it takes
+    public void append(long ticketId, long userId) {
+        PendingBooking booking = new PendingBooking(ticketId, userId);
+        if (!running) {
+            flushWithRetry(List.of(booking));
+            return;
+        }
+        try {
+            capacity.acquire();
+            queue.add(booking);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            flushWithRetry(List.of(booking));
+        }
+    }
+
+    private void runFlusher() {
+        List<PendingBooking> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingBooking first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingBooking next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch, batchSize - batch.size());
+                running = false;
+            }
+            capacity.release(batch.size());
+            if (!batch.isEmpty()) {
+                flushWithRetry(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Retries for as long as the database is unreachable. When it answers and the batch still fails,
+    // the batch is split so one bad row can't hold up the rest, and a row that keeps failing is set
+    // aside: Redis still records the claim, so the startup recovery journals it again.
+    private void flushWithRetry(List<PendingBooking> batch) {
+        int attempts = 0;
+        while (true) {
+            try {
+                flush(batch);
+                return;
+            } catch (Exception e) {
+                if (!running) {
+                    log.error("Giving up on {} bookings at shutdown; they will be recovered from Redis on restart: {}",
+                            batch.size(), e.getMessage());
+                    return;
+                }
+                if (!databaseReachable()) {
+                    log.error("Write-behind flush of {} bookings failed, database unreachable, retrying: {}",
+                            batch.size(), e.getMessage());
+                } else if (batch.size() > 1) {
+                    log.warn("Write-behind flush of {} bookings failed, writing them one at a time: {}",
+                            batch.size(), e.getMessage());
+                    batch.forEach(booking -> flushWithRetry(List.of(booking)));
+                    return;
+                } else if (++attempts >= MAX_ROW_ATTEMPTS) {
+                    abandonedCounter.increment();
+                    log.error("Setting aside the booking of ticket {} by user {} after {} failed writes; " +
+                                    "it will be recovered from Redis on restart: {}",
+                            batch.get(0).ticketId(), batch.get(0).userId(), attempts, e.getMessage());
+                    return;
+                } else {
+                    log.warn("Write-behind flush of ticket {} failed, retrying: {}", batch.get(0).ticketId(), e.getMessage());
+                }
+                try {
+                    Thread.sleep(FAILED_FLUSH_BACKOFF_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean databaseReachable() {
+        try {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void flush(List<PendingBooking> batch) {
+        long start = System.nanoTime();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] updated = transactionTemplate.execute(status -> {
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, booking) -> {
+                ps.setLong(1, booking.userId());
+                ps.setTimestamp(2, now);
+                ps.setLong(3, booking.ticketId());
+            })[0];
+            List<PendingBooking> sold = new ArrayList<>(batch.size());
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    sold.add(batch.get(i));
+                }
+            }
+            if (!sold.isEmpty()) {
+                jdbcTemplate.batchUpdate(OUTBOX_SQL, sold, sold.size(), (ps, booking) -> {
+                    ps.setTimestamp(1, now);
+                    ps.setLong(2, booking.ticketId());
+                });
+            }
+            return counts;
+        });
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizeSummary.record(batch.size());
+
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                conflictCounter.increment();
+                log.warn("Journaled booking for ticket {} found the row no longer AVAILABLE", batch.get(i).ticketId());
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::runFlusher, "booking-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            // No interrupt: the flusher wakes within one flush interval and drains what is left
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("Booking journal stopped with {} bookings unflushed", queue.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,8 @@
+package com.flashtix.backend.service;
+
+public enum BookingMode {
+    // Seat lock (Redis or in-process, see LockStrategy) around a synchronous Postgres commit
+    LOCK,
+    // Seat state lives in Redis and is claimed by a single Lua call; Postgres is written behind
+    INVENTORY
+}
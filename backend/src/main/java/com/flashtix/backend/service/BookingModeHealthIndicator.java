@@ -0,0 +1,50 @@
+package com.flashtix.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/health} component {@code bookingMode}: which path bookings take right now.
+ * <p>
+ * Stays UP while the Redis breaker is open: the node still sells seats through the database,
+ * and reporting DOWN would pull healthy capacity out of the load balancer during a cache outage.
+ */
+@Component
+public class BookingModeHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private RedisCircuitBreaker redisBreaker;
+
+    @Value("${flashtix.booking.mode:lock}")
+    private BookingMode bookingMode;
+
+    @Value("${flashtix.lock.strategy:redis}")
+    private LockStrategy lockStrategy;
+
+    @Override
+    public Health health() {
+        RedisCircuitBreaker.State breaker = redisBreaker.state();
+        return Health.up()
+                .withDetail("bookingMode", bookingMode.name().toLowerCase())
+                .withDetail("seatLock", seatLockMode(breaker))
+                .withDetail("redisBreaker", breaker.name())
+                .build();
+    }
+
+    private String seatLockMode(RedisCircuitBreaker.State breaker) {
+        if (bookingMode != BookingMode.LOCK) {
+            return "none";
+        }
+        if (lockStrategy == LockStrategy.LOCAL) {
+            return "local";
+        }
+        return switch (breaker) {
+            case CLOSED -> "redis";
+            case OPEN -> "database-only";
+            case HALF_OPEN -> "probing";
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.exception.TicketBookingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many booking threads may do database work at once.
+ * <p>
+ * With platform threads Tomcat's pool size was an implicit limit; with virtual threads
+ * there is none, and thousands of requests would queue inside Hikari holding Redis locks
+ * while they wait. The semaphore keeps in-flight DB work at the pool size and turns
+ * excess load into a fast 409 instead of a 30s connection timeout.
+ */
+@Component
+public class DatabaseBulkhead {
+
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final long acquireTimeoutMs;
+    private final Counter rejectedCounter;
+    private final Timer waitTimer;
+
+    public DatabaseBulkhead(MeterRegistry registry,
+                            @Value("${flashtix.db.max-concurrency:50}") int maxConcurrency,
+                            @Value("${flashtix.db.acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+
+        this.rejectedCounter = Counter.builder("flashtix.db.bulkhead.rejected")
+                .description("Count of booking attempts rejected because all database permits were busy")
+                .register(registry);
+
+        this.waitTimer = Timer.builder("flashtix.db.bulkhead.wait")
+                .description("Time booking threads waited for a database permit, including those that gave up")
+                .register(registry);
+
+        Gauge.builder("flashtix.db.bulkhead.inflight", this, DatabaseBulkhead::inFlight)
+                .description("Booking threads currently holding a database permit")
+                .register(registry);
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        boolean acquired;
+        long start = System.nanoTime();
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw TicketBookingException.tooManyRequests();
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejectedCounter.increment();
+            throw TicketBookingException.tooManyRequests();
+        }
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private double inFlight() {
+        return maxConcurrency - permits.availablePermits();
+    }
+}
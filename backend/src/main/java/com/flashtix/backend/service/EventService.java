@@ -0,0 +1,293 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.dto.SeatImportResult;
+import com.flashtix.backend.entity.Event;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.repository.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+@Service
+@Slf4j
+public class EventService {
+
+    private static final String RESERVE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('tickets', 'id')) FROM generate_series(1, ?)";
+    private static final String COPY_SQL =
+            "COPY tickets (id, event_id, seat_number, status, version, created_at, updated_at) FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_SQL =
+            "INSERT INTO tickets (event_id, seat_number, status, version, created_at, updated_at) VALUES (?, ?, ?, 0, ?, ?)";
+    private static final int MAX_SEAT_NUMBER_LENGTH = 255;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SeatDirectory seatDirectory;
+
+    @Autowired
+    private SeatMapCache seatMapCache;
+
+    @Autowired
+    private RedisSeatInventory seatInventory;
+
+    @Value("${flashtix.booking.mode:lock}")
+    private BookingMode bookingMode;
+
+    @Value("${flashtix.import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${flashtix.import.max-seats:200000}")
+    private long maxSeats;
+
+    private volatile Boolean partitioned;
+
+    /**
+     * Creates an event with seats labelled Seat-1..Seat-n, through the same bulk path as a manifest import.
+     */
+    public Event createEvent(String name, String venue, LocalDateTime startsAt, int seatCount) {
+        Iterator<String> seatNumbers = IntStream.rangeClosed(1, seatCount).mapToObj(i -> "Seat-" + i).iterator();
+        return importSeats(name, venue, startsAt, seatNumbers).event();
+    }
+
+    /**
+     * Creates an event from a CSV seat manifest: one seat per line, seat number in the first column,
+     * optional {@code seat_number} header. The manifest is read a line at a time and written in chunks,
+     * so memory stays bounded whatever the file size.
+     */
+    public SeatImportResult importEvent(String name, String venue, LocalDateTime startsAt, Reader manifest) {
+        return importSeats(name, venue, startsAt, new SeatManifest(new BufferedReader(manifest)));
+    }
+
+    // One transaction for the event, its partition and every seat: a bad line leaves nothing behind
+    private SeatImportResult importSeats(String name, String venue, LocalDateTime startsAt, Iterator<String> seatNumbers) {
+        long startedAt = System.nanoTime();
+        Event event = new Event();
+        event.setName(name);
+        event.setVenue(venue);
+        event.setStartsAt(startsAt);
+
+        Long seats;
+        try {
+            seats = transactionTemplate.execute(status -> {
+                eventRepository.save(event);
+                // On Postgres the partition exists before any seat is written, so no row lands in the default one
+                createPartition(event.getId());
+                return writeSeats(event.getId(), seatNumbers);
+            });
+        } catch (RuntimeException e) {
+            if (event.getId() != null && bookingMode == BookingMode.INVENTORY) {
+                seatInventory.evict(event.getId());
+            }
+            if (e instanceof DuplicateKeyException) {
+                throw new TicketBookingException("Seat manifest lists a seat number more than once");
+            }
+            throw e;
+        }
+        seatMapCache.reset(event.getId());
+
+        long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("Created event {} with {} seats in {} ms", event.getId(), seats, elapsedMs);
+        return new SeatImportResult(event, seats, elapsedMs);
+    }
+
+    // Each chunk is inserted, registered in the seat directory and pre-warmed in Redis before the next is read
+    private long writeSeats(Long eventId, Iterator<String> seatNumbers) {
+        boolean postgres = isPartitioned();
+        List<String> chunk = new ArrayList<>(chunkSize);
+        long written = 0;
+        while (seatNumbers.hasNext()) {
+            chunk.add(seatNumbers.next());
+            if (chunk.size() < chunkSize && seatNumbers.hasNext()) {
+                continue;
+            }
+            written += chunk.size();
+            if (written > maxSeats) {
+                throw new TicketBookingException("An event can have at most " + maxSeats + " seats");
+            }
+            List<Long> ids = postgres ? copyChunk(eventId, chunk) : insertChunk(eventId, chunk);
+            ids.forEach(id -> seatDirectory.register(id, eventId));
+            if (bookingMode == BookingMode.INVENTORY) {
+                seatInventory.primeAvailable(eventId, ids);
+            }
+            chunk.clear();
+        }
+        return written;
+    }
+
+    // Ids are drawn from the identity sequence up front, so nothing has to be read back after the COPY
+    private List<Long> copyChunk(Long eventId, List<String> seatNumbers) {
+        List<Long> ids = jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, seatNumbers.size());
+        String now = LocalDateTime.now().toString();
+        StringBuilder rows = new StringBuilder(seatNumbers.size() * 64);
+        for (int i = 0; i < seatNumbers.size(); i++) {
+            rows.append(ids.get(i)).append(',')
+                .append(eventId).append(',')
+                .append('"').append(seatNumbers.get(i).replace("\"", "\"\"")).append('"').append(',')
+                .append(TicketStatus.AVAILABLE.name()).append(",0,")
+                .append(now).append(',')
+                .append(now).append('\n');
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(rows.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ids;
+    }
+
+    // Portable fallback (H2 in tests): one JDBC batch per chunk, ids taken from the generated keys
+    private List<Long> insertChunk(Long eventId, List<String> seatNumbers) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, eventId);
+                        ps.setString(2, seatNumbers.get(i));
+                        ps.setString(3, TicketStatus.AVAILABLE.name());
+                        ps.setTimestamp(4, now);
+                        ps.setTimestamp(5, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return seatNumbers.size();
+                    }
+                }, keys);
+        return keys.getKeyList().stream()
+                .map(row -> ((Number) row.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    private void createPartition(Long eventId) {
+        if (!isPartitioned()) {
+            return;
+        }
+        // eventId is a generated Long, never client input, so inlining it into the DDL is safe
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS tickets_event_" + eventId +
+                " PARTITION OF tickets FOR VALUES IN (" + eventId + ")");
+    }
+
+    // Only Postgres has the partitioned table (schema-postgresql.sql); H2 in tests uses a plain one
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        }
+        return partitioned;
+    }
+
+    /**
+     * Seat numbers of a CSV manifest, parsed lazily line by line. Blank lines are skipped; the first
+     * column may be quoted CSV-style, any further columns are ignored.
+     */
+    private static final class SeatManifest implements Iterator<String> {
+
+        private final BufferedReader reader;
+        private int lineNumber;
+        private String next;
+
+        SeatManifest(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = readSeatNumber();
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String seatNumber = next;
+            next = null;
+            return seatNumber;
+        }
+
+        private String readSeatNumber() {
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    String seatNumber = firstColumn(lineNumber == 1 ? line.replace("\uFEFF", "") : line);
+                    if (lineNumber == 1 && seatNumber.equalsIgnoreCase("seat_number")) {
+                        continue;
+                    }
+                    if (seatNumber.isEmpty() || seatNumber.length() > MAX_SEAT_NUMBER_LENGTH) {
+                        throw new TicketBookingException("Invalid seat number on line " + lineNumber);
+                    }
+                    return seatNumber;
+                }
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Unterminated quotes yield an empty value, which the caller rejects
+        private static String firstColumn(String line) {
+            String trimmed = line.strip();
+            if (!trimmed.startsWith("\"")) {
+                int comma = trimmed.indexOf(',');
+                return (comma < 0 ? trimmed : trimmed.substring(0, comma)).strip();
+            }
+            StringBuilder value = new StringBuilder();
+            for (int i = 1; i < trimmed.length(); i++) {
+                char c = trimmed.charAt(i);
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < trimmed.length() && trimmed.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    return value.toString().strip();
+                }
+            }
+            return "";
+        }
+    }
+}
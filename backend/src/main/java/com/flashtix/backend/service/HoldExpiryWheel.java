@@ -0,0 +1,148 @@
+package com.flashtix.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel for seat-hold expiry.
+ * <p>
+ * Scheduling a hold is an O(1) enqueue, and each tick only looks at one wheel slot, so
+ * hundreds of thousands of live holds cost one small object each and no per-hold timer.
+ * A single ticker thread owns the slots (new holds are handed over through a lock-free
+ * queue, as in Netty's HashedWheelTimer) and passes expired ticket ids to the handler
+ * in batches. Each hold goes in the bucket of its absolute deadline tick, and the ticker
+ * follows the wall clock, catching up on any ticks it ran late for, so expiry is accurate
+ * to one tick however the ticker is scheduled.
+ */
+@Component
+@Slf4j
+public class HoldExpiryWheel implements SmartLifecycle {
+
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private record Expiry(long ticketId, long deadlineTick) {}
+
+    private final Queue<Expiry> incoming = new ConcurrentLinkedQueue<>();
+    private final List<ArrayDeque<Expiry>> wheel;
+    private final long tickMillis;
+    private final int batchSize;
+    private final long startMillis = System.currentTimeMillis();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private volatile Consumer<List<Long>> expiryHandler = ids -> { };
+    private volatile ScheduledExecutorService ticker;
+    private long currentTick; // next tick to process, only touched by the ticker thread
+
+    public HoldExpiryWheel(MeterRegistry registry,
+                           @Value("${flashtix.hold.tick-ms:1000}") long tickMillis,
+                           @Value("${flashtix.hold.wheel-size:512}") int wheelSize,
+                           @Value("${flashtix.hold.expiry-batch-size:500}") int batchSize) {
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+
+        Gauge.builder("flashtix.holds.scheduled", pending, AtomicInteger::get)
+                .description("Seat holds waiting to expire on this instance")
+                .register(registry);
+    }
+
+    public void onExpiry(Consumer<List<Long>> handler) {
+        this.expiryHandler = handler;
+    }
+
+    public void schedule(long ticketId, long deadlineMillis) {
+        // First tick that starts at or after the deadline
+        long deadlineTick = Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis);
+        incoming.add(new Expiry(ticketId, deadlineTick));
+        pending.incrementAndGet();
+    }
+
+    // Processes every tick the wall clock has reached, so a late run never skips a bucket
+    private void advance() {
+        long nowTick = (System.currentTimeMillis() - startMillis) / tickMillis;
+        while (currentTick <= nowTick) {
+            try {
+                transferIncoming();
+                expire(currentTick);
+            } catch (Exception e) {
+                // Never let one failed batch kill the ticker; the DB safety sweep picks the rows up later
+                log.error("Hold expiry tick failed: {}", e.getMessage());
+            }
+            currentTick++;
+        }
+    }
+
+    private void expire(long tick) {
+        List<Long> expired = new ArrayList<>();
+        Iterator<Expiry> slot = wheel.get((int) (tick % wheel.size())).iterator();
+        while (slot.hasNext()) {
+            Expiry expiry = slot.next();
+            // Later entries in this bucket belong to a future rotation
+            if (expiry.deadlineTick() <= tick) {
+                slot.remove();
+                pending.decrementAndGet();
+                expired.add(expiry.ticketId());
+                if (expired.size() == batchSize) {
+                    expiryHandler.accept(expired);
+                    expired = new ArrayList<>();
+                }
+            }
+        }
+        if (!expired.isEmpty()) {
+            expiryHandler.accept(expired);
+        }
+    }
+
+    private void transferIncoming() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Expiry expiry = incoming.poll();
+            if (expiry == null) {
+                return;
+            }
+            // Already due: into the bucket processed right now rather than one a rotation away
+            long tick = Math.max(expiry.deadlineTick(), currentTick);
+            wheel.get((int) (tick % wheel.size())).add(tick == expiry.deadlineTick() ? expiry : new Expiry(expiry.ticketId(), tick));
+        }
+    }
+
+    @Override
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "hold-expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        // Holds left on the wheel stay HELD in the database; the next instance reschedules them on startup
+        ticker.shutdownNow();
+        ticker = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ticker != null;
+    }
+}
@@ -0,0 +1,264 @@
+package com.flashtix.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Results of bookings made with an {@code Idempotency-Key}, so a client retry gets the original
+ * ticket back instead of a 409 from its own earlier win.
+ * <p>
+ * Keys are scoped to the user. A bounded local LRU sits in front of Redis ({@code flashtix:idempotency:*},
+ * expiring after the TTL); a replay found in either tier skips the lock and the database entirely.
+ * Before a booking runs, its key is reserved in Redis with a short-lived pending marker, so a retry
+ * that times out client-side and lands on another instance while the first attempt is still running
+ * waits for that attempt's result instead of racing it into a 409; if the result doesn't arrive within
+ * {@code pending-wait-ms} it gets a distinct "still in progress" 409. Retries on the same instance wait
+ * on the local attempt without polling Redis. Only successful bookings are stored: a failed attempt
+ * drops its marker and may be retried for real. Every Redis call goes through the
+ * {@link RedisCircuitBreaker}: while it is open the store works from the local tier alone, so a
+ * keyed booking on the database-only path never waits on a dead Redis.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    static final String KEY_PREFIX = "flashtix:idempotency:";
+    static final String PENDING_PREFIX = "PENDING:";
+    private static final long PENDING_POLL_MS = 50;
+
+    // Reserves the key for ARGV[1] unless it is taken; returns whatever the key holds afterwards
+    // (our marker, another attempt's marker, or a stored result)
+    static final RedisScript<String> RESERVE_SCRIPT = RedisScript.of(
+        "local value = redis.call('get', KEYS[1]) " +
+        "if value then return value end " +
+        "redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[2]) " +
+        "return ARGV[1]", String.class);
+
+    // Drops our pending marker after a failed attempt, never a result or another attempt's marker
+    static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end " +
+        "return 0", Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RedisCircuitBreaker redisBreaker;
+
+    private final Cache<String, Ticket> localCache;
+    private final ConcurrentHashMap<String, CompletableFuture<Ticket>> inFlight = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final long pendingTtlMs;
+    private final long pendingWaitMs;
+    private final Counter replayCounter;
+    private final Counter inProgressCounter;
+
+    public IdempotencyStore(MeterRegistry registry,
+                            @Value("${flashtix.idempotency.local-max-entries:100000}") long localMaxEntries,
+                            @Value("${flashtix.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                            @Value("${flashtix.idempotency.pending-ttl-ms:30000}") long pendingTtlMs,
+                            @Value("${flashtix.idempotency.pending-wait-ms:5000}") long pendingWaitMs) {
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.pendingTtlMs = pendingTtlMs;
+        this.pendingWaitMs = pendingWaitMs;
+
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, localCache, "idempotency");
+
+        this.replayCounter = Counter.builder("flashtix.idempotency.replayed")
+                .description("Count of retried bookings answered with the stored result of an earlier attempt")
+                .register(registry);
+
+        this.inProgressCounter = Counter.builder("flashtix.idempotency.in.progress")
+                .description("Count of retries turned away because the first attempt with their key was still running elsewhere")
+                .register(registry);
+    }
+
+    public Ticket execute(String idempotencyKey, Long ticketId, Long userId, Supplier<Ticket> booking) {
+        String key = KEY_PREFIX + userId + ":" + idempotencyKey;
+
+        Ticket stored = find(key);
+        if (stored != null) {
+            return replay(stored, ticketId);
+        }
+
+        CompletableFuture<Ticket> leader = new CompletableFuture<>();
+        CompletableFuture<Ticket> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            return replay(awaitLeader(existing), ticketId);
+        }
+
+        try {
+            // The first attempt may have finished between the lookup and becoming leader
+            Ticket ticket = find(key);
+            if (ticket != null) {
+                leader.complete(ticket);
+                return replay(ticket, ticketId);
+            }
+            ticket = runOnce(key, ticketId, booking);
+            leader.complete(ticket);
+            return ticket;
+        } catch (RuntimeException e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    private Ticket runOnce(String key, Long ticketId, Supplier<Ticket> booking) {
+        String marker = PENDING_PREFIX + UUID.randomUUID();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pendingWaitMs);
+        while (true) {
+            String current = reserve(key, marker);
+            // Reserved, or Redis can't be asked: go ahead, as a booking without a key would
+            if (current == null || current.equals(marker)) {
+                break;
+            }
+            if (!current.startsWith(PENDING_PREFIX)) {
+                Ticket stored = parse(key, current);
+                if (stored != null) {
+                    localCache.put(key, stored);
+                    return replay(stored, ticketId);
+                }
+                break;
+            }
+            // The first attempt is still running on another instance: wait for its result or its failure
+            if (System.nanoTime() - deadline > 0) {
+                inProgressCounter.increment();
+                throw new TicketBookingException(TicketBookingException.Reason.CONTENTION,
+                        "A booking with this idempotency key is still in progress. Please retry later.");
+            }
+            sleep(PENDING_POLL_MS);
+        }
+
+        Ticket ticket;
+        try {
+            ticket = booking.get();
+        } catch (RuntimeException e) {
+            release(key, marker);
+            throw e;
+        }
+        save(key, ticket);
+        return ticket;
+    }
+
+    private String reserve(String key, String marker) {
+        try {
+            return redisBreaker.callIfAllowed(() ->
+                    redisTemplate.execute(RESERVE_SCRIPT, List.of(key), marker, String.valueOf(pendingTtlMs)), null);
+        } catch (DataAccessException e) {
+            log.warn("Could not reserve idempotency key {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void release(String key, String marker) {
+        try {
+            redisBreaker.callIfAllowed(() -> redisTemplate.execute(RELEASE_SCRIPT, List.of(key), marker), null);
+        } catch (DataAccessException e) {
+            // The marker expires after pending-ttl-ms; until then retries elsewhere wait or get "in progress"
+            log.warn("Could not release idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TicketBookingException(TicketBookingException.Reason.CONTENTION,
+                    "A booking with this idempotency key is still in progress. Please retry later.");
+        }
+    }
+
+    private Ticket replay(Ticket stored, Long ticketId) {
+        if (!stored.getId().equals(ticketId)) {
+            throw new TicketBookingException("Idempotency key was already used for another ticket");
+        }
+        replayCounter.increment();
+        return stored;
+    }
+
+    private static Ticket awaitLeader(CompletableFuture<Ticket> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private Ticket find(String key) {
+        Ticket ticket = localCache.getIfPresent(key);
+        if (ticket != null) {
+            return ticket;
+        }
+        try {
+            String json = redisBreaker.callIfAllowed(() -> redisTemplate.opsForValue().get(key), null);
+            if (json == null || json.startsWith(PENDING_PREFIX)) {
+                return null;
+            }
+            ticket = parse(key, json);
+            if (ticket != null) {
+                localCache.put(key, ticket);
+            }
+            return ticket;
+        } catch (DataAccessException e) {
+            log.warn("Could not read idempotent result {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private Ticket parse(String key, String json) {
+        try {
+            return objectMapper.readValue(json, Ticket.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not read idempotent result {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void save(String key, Ticket ticket) {
+        localCache.put(key, ticket);
+        try {
+            String json = objectMapper.writeValueAsString(ticket);
+            redisBreaker.callIfAllowed(() -> {
+                redisTemplate.opsForValue().set(key, json, ttl);
+                return null;
+            }, null);
+        } catch (DataAccessException | JsonProcessingException e) {
+            // Still replayable on this instance; a retry routed elsewhere runs once the pending marker expires
+            log.warn("Could not store idempotent result {}: {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * Keeps the most recent published events in memory, for tests and local runs.
+ * Bounded: once full, the oldest event is dropped for each new one.
+ */
+@Component
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final LinkedBlockingDeque<OutboxEvent> events;
+
+    public InMemoryOutboxSink(@Value("${flashtix.outbox.memory-capacity:10000}") int capacity) {
+        this.events = new LinkedBlockingDeque<>(capacity);
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            while (!events.offerLast(event)) {
+                events.pollFirst();
+            }
+        }
+    }
+
+    public List<OutboxEvent> events() {
+        return List.copyOf(events);
+    }
+}
@@ -0,0 +1,97 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.exception.TicketBookingException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@link LockStrategy#LOCAL}: seat locks as one {@code long} slot per ticket id, claimed with a CAS.
+ * <p>
+ * A slot holds the fencing token of the lease that owns it, or 0 while the seat is unlocked. Slots
+ * live in fixed-size segments created lazily with a CAS, like {@link SoldSeatIndex}, so there are
+ * no per-seat lock objects, no boxing and no resizing under contention. Locks exist only in this
+ * JVM: use it for single-instance deployments, where it takes Redis off the booking path entirely.
+ * Nothing can outlive the process, so unlike the Redis keys no TTL is needed and renewal only checks
+ * ownership. Tokens never fall below the wall clock in microseconds, so they keep growing across
+ * restarts and stay comparable with the tokens already stored on ticket rows.
+ */
+@Component
+public class LocalSeatLock implements SeatLockStrategy {
+
+    private static final int SEGMENT_SHIFT = 16;                  // 65,536 seats per segment (512 KB)
+    private static final int SEGMENT_SLOTS = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_COUNT = 1 << 16;             // covers ticket ids up to 2^32
+    private static final long UNLOCKED = 0L;
+
+    private final AtomicReferenceArray<AtomicLongArray> segments = new AtomicReferenceArray<>(SEGMENT_COUNT);
+    private final AtomicLong fence = new AtomicLong();
+
+    @Override
+    public SeatLease tryLock(Long eventId, Long ticketId, Long userId) {
+        return tryLockAll(eventId, List.of(ticketId), userId);
+    }
+
+    @Override
+    public SeatLease tryLockAll(Long eventId, List<Long> sortedTicketIds, Long userId) {
+        long token = nextToken();
+        for (int i = 0; i < sortedTicketIds.size(); i++) {
+            long id = sortedTicketIds.get(i);
+            if (!segmentFor(id).compareAndSet(slot(id), UNLOCKED, token)) {
+                // Back out the seats already taken so a failed group leaves nothing locked
+                for (int j = i - 1; j >= 0; j--) {
+                    release(sortedTicketIds.get(j), token);
+                }
+                return null;
+            }
+        }
+        return new SeatLease(eventId, sortedTicketIds, userId, token);
+    }
+
+    @Override
+    public boolean renew(SeatLease lease) {
+        for (Long ticketId : lease.ticketIds()) {
+            long id = ticketId;
+            if (segmentFor(id).get(slot(id)) != lease.fencingToken()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void unlock(SeatLease lease) {
+        for (Long ticketId : lease.ticketIds()) {
+            release(ticketId, lease.fencingToken());
+        }
+    }
+
+    // Owner-checked, like the Redis unlock script: a stray unlock can't free someone else's seat
+    private void release(long ticketId, long token) {
+        segmentFor(ticketId).compareAndSet(slot(ticketId), token, UNLOCKED);
+    }
+
+    private long nextToken() {
+        return fence.accumulateAndGet(SeatLease.clockToken(), (last, now) -> Math.max(last + 1, now));
+    }
+
+    private AtomicLongArray segmentFor(long ticketId) {
+        if (ticketId < 0 || (ticketId >>> SEGMENT_SHIFT) >= SEGMENT_COUNT) {
+            throw new TicketBookingException("Invalid Ticket ID");
+        }
+        int segmentIndex = (int) (ticketId >>> SEGMENT_SHIFT);
+        AtomicLongArray segment = segments.get(segmentIndex);
+        if (segment == null) {
+            segments.compareAndSet(segmentIndex, null, new AtomicLongArray(SEGMENT_SLOTS));
+            segment = segments.get(segmentIndex);
+        }
+        return segment;
+    }
+
+    private static int slot(long ticketId) {
+        return (int) (ticketId & (SEGMENT_SLOTS - 1));
+    }
+}
@@ -0,0 +1,8 @@
+package com.flashtix.backend.service;
+
+public enum LockStrategy {
+    // Redis SET NX with a TTL: safe with any number of instances
+    REDIS,
+    // CAS on an in-process array: single-instance deployments only, no network hop
+    LOCAL
+}
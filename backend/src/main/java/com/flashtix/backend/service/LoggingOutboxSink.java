@@ -0,0 +1,19 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Default sink until a real consumer is wired in: the events only show up in the log
+@Component
+@Slf4j
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        events.forEach(event -> log.info("Outbox {} #{}: ticket {} of event {} for user {}",
+                event.getType(), event.getId(), event.getTicketId(), event.getEventId(), event.getUserId()));
+    }
+}
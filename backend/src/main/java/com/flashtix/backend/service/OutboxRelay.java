@@ -0,0 +1,165 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.entity.OutboxEvent;
+import com.flashtix.backend.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains {@code booking_outbox} into the {@link OutboxSink}, off the booking path.
+ * <p>
+ * Each worker thread claims the oldest batch in a short transaction ({@code FOR UPDATE SKIP LOCKED},
+ * then a lease in {@code claimed_until}), publishes it with no transaction or connection held, and
+ * deletes it afterwards. Parallel workers (and other instances) take disjoint batches, and a slow or
+ * failing sink only grows the outbox: it never ties up the connections the booking path needs.
+ * A batch whose lease runs out before it is deleted (a worker crashed or the sink outlasted the
+ * lease) is claimed again and redelivered. A worker keeps draining while batches come back full and
+ * sleeps for the poll interval otherwise. Events are ordered within a batch, not across workers.
+ */
+@Component
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final long FAILED_PUBLISH_BACKOFF_MS = 1000;
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int parallelism;
+    private final long pollIntervalMs;
+    private final long leaseMs;
+
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+    private final Timer batchTimer;
+
+    private volatile boolean running;
+    private final List<Thread> workers = new ArrayList<>();
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       OutboxSink sink,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry registry,
+                       @Value("${flashtix.outbox.batch-size:100}") int batchSize,
+                       @Value("${flashtix.outbox.parallelism:2}") int parallelism,
+                       @Value("${flashtix.outbox.poll-interval-ms:200}") long pollIntervalMs,
+                       @Value("${flashtix.outbox.lease-ms:30000}") long leaseMs) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.pollIntervalMs = pollIntervalMs;
+        this.leaseMs = leaseMs;
+
+        this.publishedCounter = Counter.builder("flashtix.outbox.published")
+                .description("Count of outbox events handed to the sink")
+                .register(registry);
+
+        this.failureCounter = Counter.builder("flashtix.outbox.failures")
+                .description("Count of outbox batches that failed to publish and were left for a retry")
+                .register(registry);
+
+        this.batchTimer = Timer.builder("flashtix.outbox.batch.duration")
+                .description("Time taken to claim, publish and delete one outbox batch")
+                .register(registry);
+    }
+
+    private void runWorker() {
+        while (running) {
+            long sleepMs = pollIntervalMs;
+            try {
+                if (relayBatch() == batchSize) {
+                    continue;
+                }
+            } catch (Exception e) {
+                failureCounter.increment();
+                log.error("Outbox relay batch failed, retrying: {}", e.getMessage());
+                sleepMs = FAILED_PUBLISH_BACKOFF_MS;
+            }
+            try {
+                Thread.sleep(sleepMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Returns the number of events published; a sink exception hands the batch straight back for a retry
+    public int relayBatch() {
+        long start = System.nanoTime();
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> claimed = outboxRepository.lockNextBatch(now, batchSize);
+            if (!claimed.isEmpty()) {
+                outboxRepository.claim(idsOf(claimed), now.plus(leaseMs, ChronoUnit.MILLIS));
+            }
+            return claimed;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = idsOf(batch);
+        try {
+            sink.publish(batch);
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.claim(ids, null));
+            throw e;
+        }
+        outboxRepository.deleteAllByIdInBatch(ids);
+
+        publishedCounter.increment(batch.size());
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return batch.size();
+    }
+
+    private static List<Long> idsOf(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).toList();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < parallelism; i++) {
+            Thread worker = new Thread(this::runWorker, "outbox-relay-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        // No interrupt: each worker finishes its current batch and exits within one poll interval
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+        log.info("Outbox relay stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
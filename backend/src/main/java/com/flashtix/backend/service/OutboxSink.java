@@ -0,0 +1,18 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination for outbox events, e.g. a message broker. Chosen by {@code flashtix.outbox.sink}:
+ * {@code log} and {@code memory} are built in; any other value is the name of an application's own
+ * sink bean.
+ * <p>
+ * Delivery is at least once: a batch is published before its rows are deleted, so a crash in
+ * between publishes it again. Throwing leaves the whole batch in the outbox for a later retry.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,232 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.repository.TicketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Non-blocking variant of {@link TicketService#bookTicket}.
+ * <p>
+ * The Redis step (lock or inventory claim) runs on {@link ReactiveStringRedisTemplate}, so no
+ * thread waits on Redis. Only the JDBC work is blocking; it runs on a bounded scheduler sized to
+ * the DB pool whose task queue is also bounded, so overload surfaces as an immediate 409 instead
+ * of an unbounded backlog. Seat semantics, error mapping and {@link BookingMetrics} timers are the
+ * same as the MVC path.
+ * With {@link LockStrategy#LOCAL} the lock is an in-process CAS and Redis is not involved at all.
+ */
+@Service
+public class ReactiveBookingService {
+
+    @Autowired
+    private ReactiveStringRedisTemplate reactiveRedisTemplate;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private DatabaseBulkhead databaseBulkhead;
+
+    @Autowired
+    private SoldSeatIndex soldSeatIndex;
+
+    @Autowired
+    private SeatMapCache seatMapCache;
+
+    @Autowired
+    private SeatDirectory seatDirectory;
+
+    @Autowired
+    private SeatLockStrategy seatLock;
+
+    @Autowired
+    private SeatLeaseWatchdog leaseWatchdog;
+
+    @Autowired
+    private RedisCircuitBreaker redisBreaker;
+
+    @Autowired
+    private RedisSeatInventory seatInventory;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
+    @Value("${flashtix.booking.mode:lock}")
+    private BookingMode bookingMode;
+
+    @Value("${flashtix.lock.strategy:redis}")
+    private LockStrategy lockStrategy;
+
+    @Value("${flashtix.lock.ttl-ms:2000}")
+    private long lockTtlMillis;
+
+    private final Scheduler jdbcScheduler;
+    private final Counter soldOutFastPathCounter;
+    private final Counter lockContentionCounter;
+
+    public ReactiveBookingService(MeterRegistry registry,
+                                  @Value("${flashtix.db.max-concurrency:50}") int maxConcurrency,
+                                  @Value("${flashtix.reactive.max-queued-db-tasks:1000}") int maxQueuedTasks) {
+        this.jdbcScheduler = Schedulers.newBoundedElastic(maxConcurrency, maxQueuedTasks, "flashtix-jdbc");
+
+        // Same meters as TicketService: Micrometer returns the already registered instance
+        this.soldOutFastPathCounter = Counter.builder("flashtix.sold.out.fastpath")
+                .description("Count of booking attempts rejected from the in-memory sold seat index")
+                .register(registry);
+
+        this.lockContentionCounter = Counter.builder("flashtix.lock.contention")
+                .description("Count of booking attempts that failed to acquire the seat lock")
+                .register(registry);
+    }
+
+    public Mono<Ticket> bookTicket(Long ticketId, Long userId) {
+        if (soldSeatIndex.isSold(ticketId)) {
+            soldOutFastPathCounter.increment();
+            return Mono.error(TicketBookingException.soldOut());
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return resolveEvent(ticketId)
+                    .flatMap(eventId -> bookingMode == BookingMode.INVENTORY
+                            ? bookFromInventory(eventId, ticketId, userId, false)
+                            : bookWithLock(eventId, ticketId, userId))
+                    .doOnSuccess(ticket -> bookingMetrics.recordBooking(start, null))
+                    .doOnError(RuntimeException.class, e -> bookingMetrics.recordBooking(start, e));
+        });
+    }
+
+    // The directory answers from memory after a seat's first lookup; only a miss goes to the JDBC scheduler
+    private Mono<Long> resolveEvent(Long ticketId) {
+        Long eventId = seatDirectory.cachedEventOf(ticketId);
+        return eventId != null ? Mono.just(eventId) : onJdbc(() -> seatDirectory.eventOf(ticketId));
+    }
+
+    private Mono<Ticket> bookWithLock(Long eventId, Long ticketId, Long userId) {
+        if (lockStrategy == LockStrategy.REDIS && !redisBreaker.allowRequest()) {
+            return onJdbc(() -> ticketService.bookWithoutSeatLock(ticketId, userId));
+        }
+
+        List<Long> seat = List.of(ticketId);
+        long lockStart = System.nanoTime();
+        Mono<SeatLease> acquire = lockStrategy == LockStrategy.LOCAL
+                // A CAS never blocks, so the in-process lock is taken right on the calling thread
+                ? Mono.justOrEmpty(seatLock.tryLock(eventId, ticketId, userId))
+                : Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return reactiveRedisTemplate.execute(RedisSeatLock.LOCK_SCRIPT, RedisSeatLock.lockScriptKeys(eventId, seat),
+                                    List.of(String.valueOf(userId), String.valueOf(lockTtlMillis)))
+                            .next()
+                            .doOnSuccess(token -> redisBreaker.record(start, false))
+                            .onErrorMap(DataAccessException.class, e -> {
+                                redisBreaker.record(start, true);
+                                return new RedisUnavailableException(e);
+                            })
+                            .filter(token -> token != 0)
+                            .map(token -> new SeatLease(eventId, seat, userId, token));
+                });
+
+        Mono<SeatLease> locked = acquire
+                .doOnTerminate(() -> bookingMetrics.recordPhase(BookingMetrics.Phase.LOCK_ACQUIRE, lockStart))
+                .switchIfEmpty(Mono.defer(() -> {
+                    lockContentionCounter.increment();
+                    return Mono.error(TicketBookingException.tooManyRequests());
+                }))
+                .doOnNext(leaseWatchdog::watch);
+
+        // usingWhen releases the lock on success, error and client cancellation alike
+        return Mono.usingWhen(locked,
+                lease -> onJdbc(() -> databaseBulkhead.execute(() ->
+                        ticketService.processBookingInDatabase(ticketId, userId, lease.fencingToken()))),
+                this::unlock,
+                (lease, error) -> unlock(lease),
+                this::unlock)
+                // Only the lock step raises this, so the seat is untouched and the database can decide alone
+                .onErrorResume(RedisUnavailableException.class,
+                        e -> onJdbc(() -> ticketService.bookWithoutSeatLock(ticketId, userId)));
+    }
+
+    private Mono<Ticket> bookFromInventory(Long eventId, Long ticketId, Long userId, boolean primed) {
+        return Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return reactiveRedisTemplate.execute(RedisSeatInventory.CLAIM_SCRIPT,
+                                    List.of(RedisSeatInventory.inventoryKey(eventId)),
+                                    List.of(String.valueOf(ticketId), String.valueOf(userId)))
+                            .next()
+                            .doOnTerminate(() -> bookingMetrics.recordPhase(BookingMetrics.Phase.INVENTORY_CLAIM, start));
+                })
+                .flatMap(result -> switch (RedisSeatInventory.toClaimResult(result)) {
+                    // Seat not in Redis yet (e.g. seeded after startup): prime it from the DB once and retry
+                    case UNKNOWN -> primed
+                            ? soldOut(ticketId)
+                            : onJdbc(() -> primeSeat(ticketId)).then(bookFromInventory(eventId, ticketId, userId, true));
+                    case TAKEN -> soldOut(ticketId);
+                    case HELD -> Mono.error(TicketBookingException.seatOnHold());
+                    // Journaling may wait for room in a full journal, so keep it off the Redis event loop
+                    case CLAIMED -> onJdbc(() -> ticketService.journalClaimedSeat(eventId, ticketId, userId));
+                });
+    }
+
+    private Long primeSeat(Long ticketId) {
+        Ticket ticket = ticketRepository.findById(ticketId)
+                .orElseThrow(() -> new TicketBookingException("Invalid Ticket ID"));
+        seatInventory.prime(ticket);
+        return ticketId;
+    }
+
+    private Mono<Ticket> soldOut(Long ticketId) {
+        soldSeatIndex.markSold(ticketId);
+        return Mono.error(TicketBookingException.soldOut());
+    }
+
+    private <T> Mono<T> onJdbc(Callable<T> work) {
+        return Mono.fromCallable(work)
+                .subscribeOn(jdbcScheduler)
+                .onErrorMap(RejectedExecutionException.class,
+                        e -> TicketBookingException.tooManyRequests());
+    }
+
+    private Mono<?> unlock(SeatLease lease) {
+        leaseWatchdog.unwatch(lease);
+        long start = System.nanoTime();
+        if (lockStrategy == LockStrategy.LOCAL) {
+            return Mono.fromRunnable(() -> {
+                seatLock.unlock(lease);
+                bookingMetrics.recordPhase(BookingMetrics.Phase.LOCK_RELEASE, start);
+            });
+        }
+        return reactiveRedisTemplate.execute(RedisSeatLock.UNLOCK_SCRIPT,
+                        RedisSeatLock.lockKeys(lease.eventId(), lease.ticketIds()), List.of(lease.owner()))
+                .next()
+                .doOnTerminate(() -> bookingMetrics.recordPhase(BookingMetrics.Phase.LOCK_RELEASE, start))
+                // The booking is already decided; an unreleased lease expires on its own
+                .onErrorResume(DataAccessException.class, e -> Mono.empty());
+    }
+
+    private static final class RedisUnavailableException extends RuntimeException {
+        RedisUnavailableException(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jdbcScheduler.dispose();
+    }
+}
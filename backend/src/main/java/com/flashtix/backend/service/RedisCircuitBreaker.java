@@ -0,0 +1,172 @@
+package com.flashtix.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker for the Redis calls on the booking path (seat lock, waiting room, and through
+ * {@link #callIfAllowed} the seat map delta and idempotency keys).
+ * <p>
+ * A call counts against Redis when it fails or takes longer than {@code slow-call-ms}. Once enough
+ * of the calls in the current window are bad the breaker opens, and callers skip Redis entirely
+ * for {@code open-ms}: a stalled Redis then costs a few requests one command timeout each, instead
+ * of every Tomcat thread. After that a handful of probe calls go through; if all of them are
+ * healthy the breaker closes, otherwise it opens again. A closed breaker costs one volatile read
+ * and two counter increments per call.
+ */
+@Component
+@Slf4j
+public class RedisCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final long slowCallNanos;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long windowNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong badCalls = new AtomicLong();
+    private final AtomicInteger probePermits = new AtomicInteger();
+    private final AtomicInteger healthyProbes = new AtomicInteger();
+    private volatile long openedAt;
+
+    private final Counter openedCounter;
+
+    public RedisCircuitBreaker(MeterRegistry registry,
+                               @Value("${flashtix.redis.breaker.slow-call-ms:100}") long slowCallMillis,
+                               @Value("${flashtix.redis.breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                               @Value("${flashtix.redis.breaker.minimum-calls:20}") int minimumCalls,
+                               @Value("${flashtix.redis.breaker.window-ms:10000}") long windowMillis,
+                               @Value("${flashtix.redis.breaker.open-ms:5000}") long openMillis,
+                               @Value("${flashtix.redis.breaker.half-open-probes:5}") int halfOpenProbes) {
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.halfOpenProbes = halfOpenProbes;
+
+        this.openedCounter = Counter.builder("flashtix.redis.breaker.opened")
+                .description("Times the Redis circuit breaker opened and booking fell back to the database")
+                .register(registry);
+        Gauge.builder("flashtix.redis.breaker.state", state, s -> s.get().ordinal())
+                .description("Redis circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(registry);
+    }
+
+    public State state() {
+        return state.get();
+    }
+
+    /**
+     * Whether the caller may use Redis now. Every {@code true} must be followed by exactly one
+     * {@link #record}; on {@code false} the caller takes its Redis-free path.
+     */
+    public boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (current == State.OPEN) {
+            if (now - openedAt < openNanos) {
+                return false;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                healthyProbes.set(0);
+                probePermits.set(halfOpenProbes);
+                openedAt = now;
+                log.info("Redis circuit breaker half-open, probing with {} calls", halfOpenProbes);
+            }
+        }
+        if (probePermits.getAndDecrement() > 0) {
+            return true;
+        }
+        // Probes that never reported back (e.g. a cancelled request) must not keep the breaker half-open
+        if (now - openedAt >= openNanos && state.compareAndSet(State.HALF_OPEN, State.OPEN)) {
+            openedAt = now - openNanos;
+        }
+        return false;
+    }
+
+    /**
+     * For Redis calls a booking can do without (a seat map delta, an idempotency lookup): returns
+     * {@code whenOpen} without calling Redis while the breaker is open, otherwise runs the call and
+     * records it. A {@link DataAccessException} is recorded as a failure and rethrown.
+     */
+    public <T> T callIfAllowed(Supplier<T> call, T whenOpen) {
+        if (!allowRequest()) {
+            return whenOpen;
+        }
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            record(start, false);
+            return result;
+        } catch (DataAccessException e) {
+            record(start, true);
+            throw e;
+        }
+    }
+
+    // failed: the call threw; a call that answered but took longer than slow-call-ms is just as bad
+    public void record(long startNanos, boolean failed) {
+        long now = System.nanoTime();
+        boolean bad = failed || now - startNanos > slowCallNanos;
+
+        if (state.get() == State.HALF_OPEN) {
+            if (bad) {
+                open(now, "a probe call was slow or failed");
+            } else if (healthyProbes.incrementAndGet() >= halfOpenProbes && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                resetWindow(now);
+                log.info("Redis circuit breaker closed, seat locks go through Redis again");
+            }
+            return;
+        }
+
+        long start = windowStart.get();
+        if (now - start > windowNanos && windowStart.compareAndSet(start, now)) {
+            calls.set(0);
+            badCalls.set(0);
+        }
+        long total = calls.incrementAndGet();
+        if (bad) {
+            long badTotal = badCalls.incrementAndGet();
+            if (total >= minimumCalls && badTotal >= total * failureRateThreshold && state.get() == State.CLOSED) {
+                open(now, badTotal + " of the last " + total + " calls were slow or failed");
+            }
+        }
+    }
+
+    private void open(long now, String reason) {
+        openedAt = now;
+        State previous = state.getAndSet(State.OPEN);
+        if (previous != State.OPEN) {
+            openedCounter.increment();
+            log.warn("Redis circuit breaker opened ({}), booking falls back to the database for {} ms",
+                    reason, TimeUnit.NANOSECONDS.toMillis(openNanos));
+        }
+    }
+
+    private void resetWindow(long now) {
+        windowStart.set(now);
+        calls.set(0);
+        badCalls.set(0);
+    }
+}
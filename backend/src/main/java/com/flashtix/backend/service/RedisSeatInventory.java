@@ -0,0 +1,193 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Authoritative seat state for {@link BookingMode#INVENTORY}.
+ * <p>
+ * One Redis hash per event holds its seats: the field is the ticket id, the value is {@code 0}
+ * while the seat is available, {@code H:<userId>} while a user holds it and the winning user id
+ * once it is sold. The event id is the
+ * key's hash tag, so in Redis Cluster each event lives on one slot and a hot on-sale only
+ * loads the node that owns it. A booking is a
+ * single EVALSHA of {@link #CLAIM_SCRIPT}, so check-available, mark-taken and
+ * record-user happen atomically in one round trip.
+ */
+@Component
+@Slf4j
+public class RedisSeatInventory {
+
+    static final String INVENTORY_KEY_PREFIX = "flashtix:inventory:";
+    private static final String AVAILABLE = "0";
+    private static final String HELD_PREFIX = "H:";
+    private static final int PRIME_CHUNK_SIZE = 1000;
+
+    // ARGV[2] is the new state (user id for a sale, H:<userId> for a hold). Returns 1 when claimed,
+    // 0 when the seat is sold, 2 when it is held, -1 when the seat is unknown to Redis
+    static final RedisScript<Long> CLAIM_SCRIPT = RedisScript.of(
+        "local state = redis.call('hget', KEYS[1], ARGV[1]) " +
+        "if not state then return -1 end " +
+        "if state ~= '" + AVAILABLE + "' then " +
+        "  if string.sub(state, 1, 2) == '" + HELD_PREFIX + "' then return 2 end " +
+        "  return 0 " +
+        "end " +
+        "redis.call('hset', KEYS[1], ARGV[1], ARGV[2]) " +
+        "return 1", Long.class);
+
+    // Multi-seat sale: ARGV holds the ticket ids followed by the user id; all seats are claimed or none
+    static final RedisScript<Long> CLAIM_ALL_SCRIPT = RedisScript.of(
+        "local userId = ARGV[#ARGV] " +
+        "for i = 1, #ARGV - 1 do " +
+        "  local state = redis.call('hget', KEYS[1], ARGV[i]) " +
+        "  if not state then return -1 end " +
+        "  if state ~= '" + AVAILABLE + "' then " +
+        "    if string.sub(state, 1, 2) == '" + HELD_PREFIX + "' then return 2 end " +
+        "    return 0 " +
+        "  end " +
+        "end " +
+        "for i = 1, #ARGV - 1 do " +
+        "  redis.call('hset', KEYS[1], ARGV[i], userId) " +
+        "end " +
+        "return 1", Long.class);
+
+    // Moves a seat from ARGV[2] to ARGV[3], but only if it is still in ARGV[2]: gives back a sale
+    // or hold that the database refused, releases or expires a hold, turns a confirmed hold into a sale
+    static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(
+        "if redis.call('hget', KEYS[1], ARGV[1]) == ARGV[2] then " +
+        "  redis.call('hset', KEYS[1], ARGV[1], ARGV[3]) return 1 " +
+        "end " +
+        "return 0", Long.class);
+
+    // TAKEN means sold; a HELD seat may come back once its hold is released or expires
+    public enum ClaimResult { CLAIMED, TAKEN, HELD, UNKNOWN }
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    static String inventoryKey(Long eventId) {
+        return INVENTORY_KEY_PREFIX + "{" + eventId + "}";
+    }
+
+    public ClaimResult claim(Long eventId, Long ticketId, Long userId) {
+        Long result = redisTemplate.execute(CLAIM_SCRIPT, Collections.singletonList(inventoryKey(eventId)),
+                String.valueOf(ticketId), String.valueOf(userId));
+        return toClaimResult(result);
+    }
+
+    public ClaimResult hold(Long eventId, Long ticketId, Long userId) {
+        Long result = redisTemplate.execute(CLAIM_SCRIPT, Collections.singletonList(inventoryKey(eventId)),
+                String.valueOf(ticketId), heldBy(userId));
+        return toClaimResult(result);
+    }
+
+    public ClaimResult claimAll(Long eventId, List<Long> ticketIds, Long userId) {
+        Object[] args = new Object[ticketIds.size() + 1];
+        for (int i = 0; i < ticketIds.size(); i++) {
+            args[i] = String.valueOf(ticketIds.get(i));
+        }
+        args[ticketIds.size()] = String.valueOf(userId);
+        return toClaimResult(redisTemplate.execute(CLAIM_ALL_SCRIPT, Collections.singletonList(inventoryKey(eventId)), args));
+    }
+
+    static ClaimResult toClaimResult(Long scriptResult) {
+        if (scriptResult == null || scriptResult < 0) {
+            return ClaimResult.UNKNOWN;
+        }
+        if (scriptResult == 2) {
+            return ClaimResult.HELD;
+        }
+        return scriptResult == 1 ? ClaimResult.CLAIMED : ClaimResult.TAKEN;
+    }
+
+    // Gives back a sale claim the booking could not complete
+    public void release(Long eventId, Long ticketId, Long userId) {
+        swap(eventId, ticketId, String.valueOf(userId), AVAILABLE);
+    }
+
+    public void releaseHold(Long eventId, Long ticketId, Long userId) {
+        swap(eventId, ticketId, heldBy(userId), AVAILABLE);
+    }
+
+    public void confirmHold(Long eventId, Long ticketId, Long userId) {
+        swap(eventId, ticketId, heldBy(userId), String.valueOf(userId));
+    }
+
+    private void swap(Long eventId, Long ticketId, String expected, String next) {
+        redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(inventoryKey(eventId)),
+                String.valueOf(ticketId), expected, next);
+    }
+
+    // HSETNX so priming never overwrites a claim another instance already made
+    public void prime(Ticket ticket) {
+        redisTemplate.opsForHash().putIfAbsent(inventoryKey(ticket.getEventId()), String.valueOf(ticket.getId()), stateOf(ticket));
+    }
+
+    public void primeAll(List<Ticket> tickets) {
+        for (int from = 0; from < tickets.size(); from += PRIME_CHUNK_SIZE) {
+            List<Ticket> chunk = tickets.subList(from, Math.min(from + PRIME_CHUNK_SIZE, tickets.size()));
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (Ticket ticket : chunk) {
+                    stringConnection.hSetNX(inventoryKey(ticket.getEventId()), String.valueOf(ticket.getId()), stateOf(ticket));
+                }
+                return null;
+            });
+        }
+        log.info("Primed Redis seat inventory with {} tickets", tickets.size());
+    }
+
+    // Freshly inserted seats can't have been claimed yet, so a whole chunk goes in as one HSET
+    public void primeAvailable(Long eventId, List<Long> ticketIds) {
+        Map<String, String> fields = new HashMap<>(ticketIds.size() * 2);
+        for (Long ticketId : ticketIds) {
+            fields.put(String.valueOf(ticketId), AVAILABLE);
+        }
+        redisTemplate.opsForHash().putAll(inventoryKey(eventId), fields);
+    }
+
+    // Drops an event's whole hash, e.g. after its seat import rolled back
+    public void evict(Long eventId) {
+        redisTemplate.delete(inventoryKey(eventId));
+    }
+
+    // Returns ticket id -> user id for every given seat that Redis records as sold; holds are not sales
+    public Map<Long, Long> findClaims(Long eventId, List<Long> ticketIds) {
+        Map<Long, Long> claims = new HashMap<>();
+        for (int from = 0; from < ticketIds.size(); from += PRIME_CHUNK_SIZE) {
+            List<Long> chunk = ticketIds.subList(from, Math.min(from + PRIME_CHUNK_SIZE, ticketIds.size()));
+            List<Object> states = redisTemplate.opsForHash().multiGet(inventoryKey(eventId),
+                    chunk.stream().map(id -> (Object) String.valueOf(id)).toList());
+            for (int i = 0; i < chunk.size(); i++) {
+                Object state = states.get(i);
+                if (state != null && !AVAILABLE.equals(state) && !state.toString().startsWith(HELD_PREFIX)) {
+                    claims.put(chunk.get(i), Long.valueOf(state.toString()));
+                }
+            }
+        }
+        return claims;
+    }
+
+    private static String stateOf(Ticket ticket) {
+        if (TicketStatus.SOLD.equals(ticket.getStatus())) {
+            return String.valueOf(ticket.getUserId());
+        }
+        return TicketStatus.HELD.equals(ticket.getStatus()) ? heldBy(ticket.getUserId()) : AVAILABLE;
+    }
+
+    private static String heldBy(Long userId) {
+        return HELD_PREFIX + userId;
+    }
+}
@@ -0,0 +1,114 @@
+package com.flashtix.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link LockStrategy#REDIS}: one key per seat holding {@code userId:fencingToken}, with a short
+ * millisecond TTL. Works across any number of instances; the TTL frees seats whose instance died
+ * mid-booking, and {@link SeatLeaseWatchdog} keeps it from running out under a live holder.
+ * <p>
+ * Tokens come from one counter per event ({@code ticket_fence:{eventId}}), incremented in the
+ * same script that takes the seat keys. The counter never falls below the Redis server clock in
+ * microseconds, so tokens keep growing past a Redis restart or failover that lost the counter.
+ */
+@Component
+public class RedisSeatLock implements SeatLockStrategy {
+
+    public static final String LOCK_KEY_PREFIX = "ticket_lock:";
+    public static final String FENCE_KEY_PREFIX = "ticket_fence:";
+
+    // Built once: Spring sends scripts as EVALSHA and only falls back to EVAL on NOSCRIPT.
+    // KEYS[1] is the event's fence counter, the rest are seat keys; all or nothing, 0 when any seat is taken
+    public static final RedisScript<Long> LOCK_SCRIPT = RedisScript.of(
+        "for i = 2, #KEYS do " +
+        "  if redis.call('exists', KEYS[i]) == 1 then return 0 end " +
+        "end " +
+        "local now = redis.call('time') " +
+        "local floor = tonumber(now[1]) * 1000000 + tonumber(now[2]) " +
+        "local token = redis.call('incr', KEYS[1]) " +
+        "if token < floor then " +
+        "  token = floor " +
+        "  redis.call('set', KEYS[1], string.format('%d', token)) " +
+        "end " +
+        "local owner = string.format('%s:%d', ARGV[1], token) " +
+        "for i = 2, #KEYS do " +
+        "  redis.call('set', KEYS[i], owner, 'PX', ARGV[2]) " +
+        "end " +
+        "return token", Long.class);
+
+    // Extends every seat key of the lease, or none if any of them expired or changed hands
+    public static final RedisScript<Long> RENEW_SCRIPT = RedisScript.of(
+        "for i, key in ipairs(KEYS) do " +
+        "  if redis.call('get', key) ~= ARGV[1] then return 0 end " +
+        "end " +
+        "for i, key in ipairs(KEYS) do " +
+        "  redis.call('pexpire', key, ARGV[2]) " +
+        "end " +
+        "return 1", Long.class);
+
+    public static final RedisScript<Long> UNLOCK_SCRIPT = RedisScript.of(
+        "local released = 0 " +
+        "for i, key in ipairs(KEYS) do " +
+        "  if redis.call('get', key) == ARGV[1] then released = released + redis.call('del', key) end " +
+        "end " +
+        "return released", Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${flashtix.lock.ttl-ms:2000}")
+    private long ttlMillis;
+
+    // The event id is the hash tag, so in Redis Cluster all of an event's locks share one slot
+    // (required by the multi-key group lock) and different on-sales spread across the cluster
+    public static String lockKey(Long eventId, Long ticketId) {
+        return LOCK_KEY_PREFIX + "{" + eventId + "}:" + ticketId;
+    }
+
+    public static String fenceKey(Long eventId) {
+        return FENCE_KEY_PREFIX + "{" + eventId + "}";
+    }
+
+    // KEYS for LOCK_SCRIPT, shared with the reactive path
+    public static List<String> lockScriptKeys(Long eventId, List<Long> ticketIds) {
+        List<String> keys = new ArrayList<>(ticketIds.size() + 1);
+        keys.add(fenceKey(eventId));
+        keys.addAll(lockKeys(eventId, ticketIds));
+        return keys;
+    }
+
+    public static List<String> lockKeys(Long eventId, List<Long> ticketIds) {
+        return ticketIds.stream().map(id -> lockKey(eventId, id)).toList();
+    }
+
+    @Override
+    public SeatLease tryLock(Long eventId, Long ticketId, Long userId) {
+        return tryLockAll(eventId, List.of(ticketId), userId);
+    }
+
+    @Override
+    public SeatLease tryLockAll(Long eventId, List<Long> sortedTicketIds, Long userId) {
+        Long token = redisTemplate.execute(LOCK_SCRIPT, lockScriptKeys(eventId, sortedTicketIds),
+                String.valueOf(userId), String.valueOf(ttlMillis));
+        return token == null || token == 0 ? null : new SeatLease(eventId, sortedTicketIds, userId, token);
+    }
+
+    @Override
+    public boolean renew(SeatLease lease) {
+        Long renewed = redisTemplate.execute(RENEW_SCRIPT, lockKeys(lease.eventId(), lease.ticketIds()),
+                lease.owner(), String.valueOf(ttlMillis));
+        return renewed != null && renewed == 1;
+    }
+
+    @Override
+    public void unlock(SeatLease lease) {
+        redisTemplate.execute(UNLOCK_SCRIPT, lockKeys(lease.eventId(), lease.ticketIds()), lease.owner());
+    }
+}
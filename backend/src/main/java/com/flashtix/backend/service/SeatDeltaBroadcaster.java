@@ -0,0 +1,342 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.exception.TicketBookingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes seat-state deltas to browsers over server-sent events, one stream per event.
+ * <p>
+ * The instance's single seat-map subscription ({@link SeatMapCache}) feeds every delta in
+ * here; no client ever holds its own Redis subscription. One frame thread drains the
+ * deltas every {@code flashtix.stream.frame-ms}, keeps only the latest status per seat,
+ * encodes each event's frame once as {@code [[ticketId,"STATUS"],...]} and hands that
+ * same payload to every subscriber of the event. The frame thread never writes to a socket:
+ * each subscriber has a bounded buffer of frames that a small writer pool drains. A subscriber
+ * whose buffer overflows, or whose write is still blocked after {@code flashtix.stream.send-timeout-ms}
+ * (a client with a full TCP window), has fallen behind and is closed; its client reconnects and
+ * refetches the seat map. A blocked write can't be interrupted, so the pool gets a replacement
+ * thread for as long as it stays blocked: a stuck client only stalls its own stream. Every
+ * stream gets a comment line each heartbeat so dead connections are dropped. Streams are
+ * closed on shutdown before the web server's graceful shutdown starts, which would
+ * otherwise wait for them to end.
+ */
+@Component
+@Slf4j
+public class SeatDeltaBroadcaster implements SmartLifecycle {
+
+    private static final String SEATS_EVENT = "seats";
+    private static final String RESET_EVENT = "reset";
+    private static final long WRITTEN_OFF = -1L;
+
+    private record SeatDelta(long eventId, long ticketId, TicketStatus status) {}
+
+    private static final class Subscriber {
+        final Long eventId;
+        final SseEmitter emitter;
+        final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+        final AtomicBoolean draining = new AtomicBoolean();
+        // nanoTime the current write started, 0 while none is running, WRITTEN_OFF once the frame thread gave up on it
+        final AtomicLong writeStarted = new AtomicLong();
+        volatile boolean closed;
+
+        Subscriber(Long eventId, SseEmitter emitter, int bufferFrames) {
+            this.eventId = eventId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferFrames);
+        }
+    }
+
+    private final Queue<SeatDelta> pending = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Long> resetEvents = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final int maxSubscribers;
+    private final long frameMillis;
+    private final long emitterTimeoutMs;
+    private final long heartbeatFrames;
+    private final int bufferFrames;
+    private final long sendTimeoutNanos;
+    private final int writerThreads;
+    private final int maxWriterThreads;
+    private final ScheduledExecutorService framer;
+    private final ThreadPoolExecutor writers;
+    private final DistributionSummary frameSizeSummary;
+    private final Counter laggingCounter;
+
+    private volatile boolean running;
+    private long frames; // only touched by the frame thread
+    private int blockedWriters; // guarded by writers
+
+    public SeatDeltaBroadcaster(MeterRegistry registry,
+                                @Value("${flashtix.stream.frame-ms:100}") long frameMillis,
+                                @Value("${flashtix.stream.heartbeat-ms:15000}") long heartbeatMillis,
+                                @Value("${flashtix.stream.max-subscribers:20000}") int maxSubscribers,
+                                @Value("${flashtix.stream.timeout-ms:1800000}") long emitterTimeoutMs,
+                                @Value("${flashtix.stream.subscriber-buffer-frames:32}") int bufferFrames,
+                                @Value("${flashtix.stream.writer-threads:16}") int writerThreads,
+                                @Value("${flashtix.stream.max-writer-threads:256}") int maxWriterThreads,
+                                @Value("${flashtix.stream.send-timeout-ms:1000}") long sendTimeoutMs) {
+        this.maxSubscribers = maxSubscribers;
+        this.frameMillis = frameMillis;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.heartbeatFrames = Math.max(1, heartbeatMillis / frameMillis);
+        this.bufferFrames = bufferFrames;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.writerThreads = writerThreads;
+        this.maxWriterThreads = Math.max(writerThreads, maxWriterThreads);
+
+        Gauge.builder("flashtix.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open seat-delta streams on this instance")
+                .register(registry);
+
+        this.frameSizeSummary = DistributionSummary.builder("flashtix.stream.frame.size")
+                .description("Seat deltas per event frame after coalescing")
+                .register(registry);
+
+        this.laggingCounter = Counter.builder("flashtix.stream.lagging")
+                .description("Seat-delta streams closed because their client fell behind: a whole buffer of frames, " +
+                        "or one write blocked past the send timeout")
+                .register(registry);
+
+        this.framer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "seat-delta-framer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger writerIds = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "seat-delta-writer-" + writerIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long eventId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new TicketBookingException("Too many live subscribers, please poll the seat map instead");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(eventId, emitter, bufferFrames);
+        Runnable unsubscribe = () -> remove(subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        // compute/computeIfPresent run under the map's bin lock, so an event's set is never dropped while being joined
+        subscribers.compute(eventId, (id, joined) -> {
+            Set<Subscriber> members = joined != null ? joined : ConcurrentHashMap.newKeySet();
+            members.add(subscriber);
+            return members;
+        });
+        return emitter;
+    }
+
+    public void enqueue(long eventId, long ticketId, TicketStatus status) {
+        if (subscribers.containsKey(eventId)) {
+            pending.add(new SeatDelta(eventId, ticketId, status));
+        }
+    }
+
+    // The event was re-seeded: its clients should refetch the seat map instead of applying deltas
+    public void reset(long eventId) {
+        resetEvents.add(eventId);
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.eventId, (id, members) -> {
+            if (members.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private void flush() {
+        try {
+            writeOffBlockedWrites();
+            Map<Long, Set<ResponseBodyEmitter.DataWithMediaType>> eventFrames = nextFrames();
+            eventFrames.forEach((eventId, frame) -> send(eventId, frame));
+
+            if (++this.frames % heartbeatFrames == 0) {
+                Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("").build();
+                subscribers.keySet().forEach(eventId -> send(eventId, heartbeat));
+            }
+        } catch (Exception e) {
+            // Never let one bad frame kill the frame thread
+            log.error("Seat delta frame failed: {}", e.getMessage());
+        }
+    }
+
+    // Only queues the frame; a subscriber that has no room left has fallen behind and is cut loose
+    private void send(Long eventId, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        for (Subscriber subscriber : subscribers.getOrDefault(eventId, Set.of())) {
+            if (!subscriber.buffer.offer(frame)) {
+                laggingCounter.increment();
+                remove(subscriber);
+                // Its writer may be stuck in a blocking write, so the writer completes the stream, not this thread
+                subscriber.closed = true;
+            }
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Shutting down; stop() completes every stream
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> frame;
+            while (!subscriber.closed && (frame = subscriber.buffer.poll()) != null) {
+                long started = Math.max(1, System.nanoTime());
+                subscriber.writeStarted.set(started);
+                try {
+                    subscriber.emitter.send(frame);
+                } finally {
+                    if (!subscriber.writeStarted.compareAndSet(started, 0)) {
+                        // Written off while blocked: the replacement thread is no longer needed
+                        resizeWriters(-1);
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container calls onError/onCompletion as well
+            remove(subscriber);
+            subscriber.closed = true;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (subscriber.closed) {
+            subscriber.buffer.clear();
+            subscriber.emitter.complete();
+        } else if (!subscriber.buffer.isEmpty()) {
+            // A frame arrived after the last poll but before draining was cleared
+            scheduleDrain(subscriber);
+        }
+    }
+
+    // A write blocked this long means the client's TCP window is full. The stream is given up and the
+    // pool gets a thread in place of the blocked one (up to max-writer-threads) until the write returns
+    private void writeOffBlockedWrites() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> members : subscribers.values()) {
+            for (Subscriber subscriber : members) {
+                long started = subscriber.writeStarted.get();
+                if (started > 0 && now - started > sendTimeoutNanos
+                        && subscriber.writeStarted.compareAndSet(started, WRITTEN_OFF)) {
+                    laggingCounter.increment();
+                    remove(subscriber);
+                    // The blocked writer completes the stream once its write returns
+                    subscriber.closed = true;
+                    resizeWriters(1);
+                }
+            }
+        }
+    }
+
+    private void resizeWriters(int delta) {
+        synchronized (writers) {
+            blockedWriters += delta;
+            int size = Math.min(maxWriterThreads, writerThreads + Math.max(0, blockedWriters));
+            // Grow the maximum first and shrink it last, so core never exceeds it
+            if (size > writers.getMaximumPoolSize()) {
+                writers.setMaximumPoolSize(size);
+                writers.setCorePoolSize(size);
+            } else {
+                writers.setCorePoolSize(size);
+                writers.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private Map<Long, Set<ResponseBodyEmitter.DataWithMediaType>> nextFrames() {
+        // Latest status per seat wins; insertion order keeps each frame roughly chronological
+        Map<Long, Map<Long, TicketStatus>> latest = new HashMap<>();
+        for (SeatDelta delta = pending.poll(); delta != null; delta = pending.poll()) {
+            Map<Long, TicketStatus> seats = latest.computeIfAbsent(delta.eventId(), id -> new LinkedHashMap<>());
+            seats.remove(delta.ticketId());
+            seats.put(delta.ticketId(), delta.status());
+        }
+
+        Map<Long, Set<ResponseBodyEmitter.DataWithMediaType>> frames = new HashMap<>();
+        latest.forEach((eventId, seats) -> {
+            frameSizeSummary.record(seats.size());
+            StringBuilder payload = new StringBuilder(seats.size() * 16).append('[');
+            seats.forEach((ticketId, status) -> {
+                if (payload.length() > 1) {
+                    payload.append(',');
+                }
+                payload.append('[').append(ticketId).append(",\"").append(status.name()).append("\"]");
+            });
+            frames.put(eventId, SseEmitter.event().name(SEATS_EVENT)
+                    .data(payload.append(']').toString(), MediaType.APPLICATION_JSON).build());
+        });
+
+        // A reset replaces whatever deltas the event had in this frame
+        for (Long eventId : resetEvents) {
+            resetEvents.remove(eventId);
+            frames.put(eventId, SseEmitter.event().name(RESET_EVENT).data("{}", MediaType.APPLICATION_JSON).build());
+        }
+        return frames;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        framer.scheduleAtFixedRate(this::flush, frameMillis, frameMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        framer.shutdownNow();
+        writers.shutdownNow();
+        subscribers.values().forEach(members -> members.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+        subscriberCount.set(0);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
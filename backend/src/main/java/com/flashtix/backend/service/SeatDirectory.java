@@ -0,0 +1,47 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.repository.TicketRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ticket id -> event id, so event-scoped Redis keys can be built from a bare ticket id.
+ * <p>
+ * A ticket never moves between events, so entries never go stale and are only evicted
+ * for size; after the first lookup a seat costs no database round trip.
+ */
+@Component
+public class SeatDirectory {
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    private final Cache<Long, Long> eventByTicket;
+
+    public SeatDirectory(@Value("${flashtix.directory.max-entries:1000000}") long maxEntries) {
+        this.eventByTicket = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    public Long eventOf(Long ticketId) {
+        Long eventId = eventByTicket.get(ticketId, id -> ticketRepository.findEventIdById(id).orElse(null));
+        if (eventId == null) {
+            throw new TicketBookingException("Invalid Ticket ID");
+        }
+        return eventId;
+    }
+
+    // Non-blocking variant for reactive callers: null when the lookup would need the database
+    public Long cachedEventOf(Long ticketId) {
+        return eventByTicket.getIfPresent(ticketId);
+    }
+
+    public void register(Long ticketId, Long eventId) {
+        eventByTicket.put(ticketId, eventId);
+    }
+}
@@ -0,0 +1,24 @@
+package com.flashtix.backend.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * A granted seat lock: the seats it covers, who holds it and its fencing token.
+ * <p>
+ * Tokens only ever grow, so when a lease expires mid-commit and the seat passes to a new holder,
+ * the database can tell the stale writer apart by its smaller token.
+ */
+public record SeatLease(Long eventId, List<Long> ticketIds, Long userId, long fencingToken) {
+
+    // Value stored under each seat key; unlock and renewal only touch keys still holding it
+    public String owner() {
+        return userId + ":" + fencingToken;
+    }
+
+    // Lower bound for every token: the wall clock in microseconds, so tokens keep growing across restarts
+    public static long clockToken() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+}
@@ -0,0 +1,96 @@
+package com.flashtix.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps seat lock leases alive while their holder is still in the database.
+ * <p>
+ * The lock TTL is kept short so seats held by a crashed instance free up quickly; a booking that
+ * runs longer (pool wait, slow commit) has its lease renewed every third of the TTL by a single
+ * ticker thread. Leases younger than one interval are skipped, so the common sub-millisecond
+ * booking is never renewed at all. A lease that can't be renewed was lost: the holder carries on,
+ * and the fencing token makes the database refuse its write if a newer holder has already written.
+ */
+@Component
+@Slf4j
+public class SeatLeaseWatchdog {
+
+    private final SeatLockStrategy seatLock;
+    private final Map<SeatLease, Long> watched = new ConcurrentHashMap<>();
+    private final long intervalNanos;
+    private final ScheduledExecutorService ticker;
+    private final Counter renewalCounter;
+    private final Counter lostCounter;
+
+    public SeatLeaseWatchdog(SeatLockStrategy seatLock, MeterRegistry registry,
+                             @Value("${flashtix.lock.ttl-ms:2000}") long ttlMillis) {
+        this.seatLock = seatLock;
+        long intervalMillis = Math.max(1, ttlMillis / 3);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+
+        this.renewalCounter = Counter.builder("flashtix.lock.lease.renewals")
+                .description("Seat lock leases extended because their holder was still working")
+                .register(registry);
+        this.lostCounter = Counter.builder("flashtix.lock.lease.lost")
+                .description("Seat lock leases that expired or changed hands while their holder was still working")
+                .register(registry);
+        Gauge.builder("flashtix.lock.lease.watched", watched, Map::size)
+                .description("Seat lock leases currently held on this instance")
+                .register(registry);
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "seat-lease-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::renewDue, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void watch(SeatLease lease) {
+        watched.put(lease, System.nanoTime());
+    }
+
+    public void unwatch(SeatLease lease) {
+        watched.remove(lease);
+    }
+
+    private void renewDue() {
+        long now = System.nanoTime();
+        watched.forEach((lease, renewedAt) -> {
+            if (now - renewedAt < intervalNanos) {
+                return;
+            }
+            try {
+                if (seatLock.renew(lease)) {
+                    renewalCounter.increment();
+                    // Only if still watched: the holder may have finished while the renewal ran
+                    watched.replace(lease, renewedAt, now);
+                } else if (watched.remove(lease) != null) {
+                    lostCounter.increment();
+                    log.warn("Seat lock lease {} for seats {} was lost before its holder finished",
+                            lease.fencingToken(), lease.ticketIds());
+                }
+            } catch (RuntimeException e) {
+                // Never let one failed renewal kill the ticker; the lease is tried again next tick
+                log.error("Seat lock lease renewal failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ticker.shutdownNow();
+    }
+}
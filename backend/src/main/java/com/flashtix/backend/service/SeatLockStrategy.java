@@ -0,0 +1,26 @@
+package com.flashtix.backend.service;
+
+import java.util.List;
+
+/**
+ * Seat lock held around the database commit in {@link BookingMode#LOCK}.
+ * <p>
+ * A lock only keeps concurrent attempts on one seat from queuing on the same row; Postgres stays
+ * the source of truth. Acquisition never waits: a taken lock is reported as {@code null} and the
+ * caller answers with a 409. Locks are leases with a short TTL that {@link SeatLeaseWatchdog}
+ * renews while the holder is still working, and every lease carries a fencing token the
+ * database checks, so a holder that outlived its lease can't overwrite a newer one.
+ * The implementation is chosen by {@code flashtix.lock.strategy}.
+ */
+public interface SeatLockStrategy {
+
+    SeatLease tryLock(Long eventId, Long ticketId, Long userId);
+
+    // All or nothing under one token; ids come sorted, so two overlapping groups can't each hold part of the other
+    SeatLease tryLockAll(Long eventId, List<Long> sortedTicketIds, Long userId);
+
+    // Pushes the lease out by another TTL; false once it expired or passed to another holder
+    boolean renew(SeatLease lease);
+
+    void unlock(SeatLease lease);
+}
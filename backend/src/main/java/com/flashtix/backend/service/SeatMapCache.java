@@ -0,0 +1,279 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.dto.SeatAvailability;
+import com.flashtix.backend.dto.SeatView;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.repository.TicketRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Two-tier near cache behind the seat map and availability endpoints.
+ * <p>
+ * Each instance keeps one seat map per event in a bounded Caffeine cache. A local miss reads
+ * the event's Redis hash {@code flashtix:seatmap:{eventId}}; only when Redis has no copy either is the database
+ * queried, once, and the result written back to Redis. Every seat state change updates
+ * the Redis hash and is published on {@link #CHANNEL} in one script call, and each
+ * instance applies the delta to its local copy in place, so polling never re-reads Redis
+ * or the database. Pub/sub is at-most-once: the local and Redis TTLs bound how long a
+ * lost delta can stay visible. The same subscription feeds {@link SeatDeltaBroadcaster}.
+ */
+@Service
+@Slf4j
+public class SeatMapCache implements MessageListener {
+
+    static final String SEATMAP_KEY_PREFIX = "flashtix:seatmap:";
+    static final String CHANNEL = "flashtix:seatmap:changes";
+    private static final String RESET = "*";
+    private static final String SEPARATOR = "|";
+    private static final int WRITE_CHUNK_SIZE = 1000;
+
+    // KEYS: seat map hash. ARGV: ticket id, new status, channel, event id. Hash values are "STATUS|seatNumber",
+    // messages are "eventId|ticketId|STATUS".
+    // A seat missing from the hash means the Redis copy isn't built yet and the next build reads
+    // the committed row, so only the delta is published
+    static final RedisScript<Long> APPLY_DELTA_SCRIPT = RedisScript.of(
+        "local seat = redis.call('hget', KEYS[1], ARGV[1]) " +
+        "if seat then " +
+        "  local separator = string.find(seat, '|', 1, true) " +
+        "  redis.call('hset', KEYS[1], ARGV[1], ARGV[2] .. string.sub(seat, separator)) " +
+        "end " +
+        "return redis.call('publish', ARGV[3], ARGV[4] .. '|' .. ARGV[1] .. '|' .. ARGV[2])", Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private SeatDeltaBroadcaster deltaBroadcaster;
+
+    @Autowired
+    private RedisCircuitBreaker redisBreaker;
+
+    private final Cache<Long, Snapshot> localCache;
+    private final long redisTtlSeconds;
+    private final Counter redisLoadCounter;
+    private final Counter databaseLoadCounter;
+
+    public SeatMapCache(MeterRegistry registry,
+                        @Value("${flashtix.seatmap.local-max-events:64}") long localMaxEvents,
+                        @Value("${flashtix.seatmap.local-ttl-ms:5000}") long localTtlMs,
+                        @Value("${flashtix.seatmap.redis-ttl-seconds:300}") long redisTtlSeconds) {
+        this.redisTtlSeconds = redisTtlSeconds;
+
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxEvents)
+                .expireAfterWrite(Duration.ofMillis(localTtlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, localCache, "seatmap");
+
+        this.redisLoadCounter = Counter.builder("flashtix.seatmap.loads")
+                .description("Count of local seat map misses, by the tier that served them")
+                .tag("tier", "redis")
+                .register(registry);
+
+        this.databaseLoadCounter = Counter.builder("flashtix.seatmap.loads")
+                .description("Count of local seat map misses, by the tier that served them")
+                .tag("tier", "database")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    static String seatMapKey(Long eventId) {
+        return SEATMAP_KEY_PREFIX + "{" + eventId + "}";
+    }
+
+    public Collection<SeatView> getSeatMap(Long eventId) {
+        return snapshot(eventId).seats.values();
+    }
+
+    public SeatAvailability getAvailability(Long eventId) {
+        Snapshot snapshot = snapshot(eventId);
+        return new SeatAvailability(
+                snapshot.counts.get(TicketStatus.AVAILABLE.ordinal()),
+                snapshot.counts.get(TicketStatus.HELD.ordinal()),
+                snapshot.counts.get(TicketStatus.SOLD.ordinal()),
+                snapshot.seats.size());
+    }
+
+    /**
+     * Records a seat state change in Redis and broadcasts it to every instance. Inside a
+     * transaction the delta is sent after commit, so readers never see a rolled-back sale.
+     */
+    public void publish(Long eventId, Long ticketId, TicketStatus status) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(eventId, ticketId, status);
+                }
+            });
+        } else {
+            send(eventId, ticketId, status);
+        }
+    }
+
+    // Seats were added or removed in bulk: drop both tiers everywhere and rebuild on the next read
+    public void reset(Long eventId) {
+        localCache.invalidate(eventId);
+        try {
+            redisTemplate.delete(seatMapKey(eventId));
+            redisTemplate.convertAndSend(CHANNEL, eventId + SEPARATOR + RESET);
+        } catch (DataAccessException e) {
+            log.warn("Could not reset the Redis seat map for event {}: {}", eventId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\" + SEPARATOR);
+        Long eventId = Long.valueOf(parts[0]);
+        if (RESET.equals(parts[1])) {
+            localCache.invalidate(eventId);
+            deltaBroadcaster.reset(eventId);
+            return;
+        }
+        Long ticketId = Long.valueOf(parts[1]);
+        TicketStatus status = TicketStatus.valueOf(parts[2]);
+        applyLocally(eventId, ticketId, status);
+        // Every instance, the publisher included, gets each delta exactly once here
+        deltaBroadcaster.enqueue(eventId, ticketId, status);
+    }
+
+    // Runs on the booking thread (after commit), so while Redis is down it is skipped rather than
+    // waiting out a command timeout with the bulkhead permit still held
+    private void send(Long eventId, Long ticketId, TicketStatus status) {
+        applyLocally(eventId, ticketId, status);
+        try {
+            redisBreaker.callIfAllowed(() -> redisTemplate.execute(APPLY_DELTA_SCRIPT, List.of(seatMapKey(eventId)),
+                    String.valueOf(ticketId), status.name(), CHANNEL, String.valueOf(eventId)), null);
+        } catch (DataAccessException e) {
+            // The seat change is already committed; a lost delta only shows until the TTLs lapse
+            log.warn("Could not publish seat map delta for ticket {}: {}", ticketId, e.getMessage());
+        }
+    }
+
+    private void applyLocally(Long eventId, Long ticketId, TicketStatus status) {
+        Snapshot snapshot = localCache.getIfPresent(eventId);
+        if (snapshot != null) {
+            snapshot.apply(ticketId, status);
+        }
+    }
+
+    // Caffeine runs one load per key at a time, so a cold instance sends one read downstream, not one per poll
+    private Snapshot snapshot(Long eventId) {
+        return localCache.get(eventId, this::load);
+    }
+
+    private Snapshot load(Long eventId) {
+        try {
+            Map<Object, Object> cached = redisTemplate.opsForHash().entries(seatMapKey(eventId));
+            if (!cached.isEmpty()) {
+                redisLoadCounter.increment();
+                Snapshot snapshot = new Snapshot();
+                cached.forEach((id, value) -> snapshot.put(decode(id.toString(), value.toString())));
+                return snapshot;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Redis seat map unavailable, reading from the database: {}", e.getMessage());
+        }
+
+        databaseLoadCounter.increment();
+        List<SeatView> seats = ticketRepository.findSeatMap(eventId);
+        store(eventId, seats);
+        Snapshot snapshot = new Snapshot();
+        seats.forEach(snapshot::put);
+        return snapshot;
+    }
+
+    private void store(Long eventId, List<SeatView> seats) {
+        try {
+            for (int from = 0; from < seats.size(); from += WRITE_CHUNK_SIZE) {
+                Map<String, String> chunk = new LinkedHashMap<>();
+                seats.subList(from, Math.min(from + WRITE_CHUNK_SIZE, seats.size()))
+                        .forEach(seat -> chunk.put(String.valueOf(seat.id()), encode(seat)));
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    ((StringRedisConnection) connection).hMSet(seatMapKey(eventId), chunk);
+                    return null;
+                });
+            }
+            redisTemplate.expire(seatMapKey(eventId), Duration.ofSeconds(redisTtlSeconds));
+        } catch (DataAccessException e) {
+            log.warn("Could not write the seat map to Redis: {}", e.getMessage());
+        }
+    }
+
+    private static String encode(SeatView seat) {
+        return seat.status().name() + SEPARATOR + seat.seatNumber();
+    }
+
+    private static SeatView decode(String id, String value) {
+        int separator = value.indexOf(SEPARATOR);
+        return new SeatView(Long.valueOf(id), value.substring(separator + 1),
+                TicketStatus.valueOf(value.substring(0, separator)));
+    }
+
+    // Mutable local copy: a delta swaps one entry and moves one count, the map is never rebuilt
+    private static final class Snapshot {
+        private final ConcurrentSkipListMap<Long, SeatView> seats = new ConcurrentSkipListMap<>();
+        private final AtomicLongArray counts = new AtomicLongArray(TicketStatus.values().length);
+
+        void put(SeatView seat) {
+            SeatView previous = seats.put(seat.id(), seat);
+            if (previous != null) {
+                counts.decrementAndGet(previous.status().ordinal());
+            }
+            counts.incrementAndGet(seat.status().ordinal());
+        }
+
+        void apply(Long ticketId, TicketStatus status) {
+            SeatView current;
+            do {
+                current = seats.get(ticketId);
+                if (current == null || current.status() == status) {
+                    return;
+                }
+            } while (!seats.replace(ticketId, current, new SeatView(ticketId, current.seatNumber(), status)));
+            counts.decrementAndGet(current.status().ordinal());
+            counts.incrementAndGet(status.ordinal());
+        }
+    }
+}
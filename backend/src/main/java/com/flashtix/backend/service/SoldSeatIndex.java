@@ -0,0 +1,108 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.repository.TicketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Per-instance bitset of ticket ids known to be SOLD.
+ * <p>
+ * Lets {@link TicketService} reject bookings for sold seats from memory, before any
+ * Redis or Postgres round trip. A SOLD ticket never goes back to AVAILABLE, so a set
+ * bit is always correct as long as it is only set for committed sales (see
+ * {@link #markSoldOnCommit}); a clear bit only means "ask the database".
+ * <p>
+ * Bits live in fixed-size segments that are created lazily with a CAS, so the
+ * index never copies or resizes while other threads are writing to it.
+ */
+@Component
+@Slf4j
+public class SoldSeatIndex {
+
+    private static final int SEGMENT_SHIFT = 18;                  // 262,144 seats per segment (32 KB)
+    private static final int SEGMENT_BITS = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_COUNT = 1 << 14;             // covers ticket ids up to 2^32
+
+    private final AtomicReferenceArray<AtomicLongArray> segments = new AtomicReferenceArray<>(SEGMENT_COUNT);
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    // On ready rather than at bean creation, so the context refreshes without a database (AOT and CDS
+    // training runs); ready listeners still finish before readiness turns UP
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSoldSeats() {
+        List<Long> soldIds = ticketRepository.findIdsByStatus(TicketStatus.SOLD);
+        soldIds.forEach(this::markSold);
+        log.info("Sold seat index primed with {} tickets", soldIds.size());
+    }
+
+    public boolean isSold(long ticketId) {
+        if (!inRange(ticketId)) {
+            return false;
+        }
+        AtomicLongArray segment = segments.get((int) (ticketId >>> SEGMENT_SHIFT));
+        if (segment == null) {
+            return false;
+        }
+        int bit = (int) (ticketId & (SEGMENT_BITS - 1));
+        return (segment.get(bit >>> 6) & (1L << bit)) != 0;
+    }
+
+    public void markSold(long ticketId) {
+        if (!inRange(ticketId)) {
+            return;
+        }
+        int segmentIndex = (int) (ticketId >>> SEGMENT_SHIFT);
+        AtomicLongArray segment = segments.get(segmentIndex);
+        if (segment == null) {
+            segments.compareAndSet(segmentIndex, null, new AtomicLongArray(SEGMENT_BITS >>> 6));
+            segment = segments.get(segmentIndex);
+        }
+        int bit = (int) (ticketId & (SEGMENT_BITS - 1));
+        long mask = 1L << bit;
+        int word = bit >>> 6;
+        long current;
+        while (((current = segment.get(word)) & mask) == 0) {
+            if (segment.compareAndSet(word, current, current | mask)) {
+                return;
+            }
+        }
+    }
+
+    // A sale made inside a transaction only counts once it commits: there is no eviction, so a bit set
+    // for a rolled-back sale would answer a still AVAILABLE seat with 409 for the life of the process
+    public void markSoldOnCommit(long ticketId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markSold(ticketId);
+                }
+            });
+        } else {
+            markSold(ticketId);
+        }
+    }
+
+    // Drops every bit (e.g. after seats were reset out of band); sold seats are re-learned from the DB
+    public void clear() {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments.set(i, null);
+        }
+    }
+
+    private static boolean inRange(long ticketId) {
+        return ticketId >= 0 && (ticketId >>> SEGMENT_SHIFT) < SEGMENT_COUNT;
+    }
+}
@@ -0,0 +1,169 @@
+package com.flashtix.backend.service;
+
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.repository.TicketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms a new node up before it takes traffic.
+ * <p>
+ * Runners finish before Spring Boot reports the readiness state ACCEPTING_TRAFFIC, so
+ * {@code /actuator/health/readiness} stays OUT_OF_SERVICE until this is done. It fills the Hikari
+ * pool, opens the Redis connection and loads every booking Lua script, then books dummy seats
+ * through {@link TicketService#bookTicket} so the hot path (coalescer, bulkhead, seat lock or
+ * inventory claim, the database write) is JIT-compiled and Hibernate has prepared its statements.
+ * Each dummy seat is created and booked in a transaction that is rolled back, under event id 0,
+ * which no real event gets. The dummy sales stay out of the booking metrics, the write-behind
+ * journal and the sold seat index; in inventory mode the event's Redis inventory is dropped afterwards.
+ * A failed warm-up is logged and the node starts cold rather than not at all.
+ */
+@Component
+@Slf4j
+public class StartupWarmup implements ApplicationRunner {
+
+    static final long WARMUP_EVENT_ID = 0L;
+    private static final long WARMUP_USER_ID = 0L;
+
+    private static final List<RedisScript<?>> BOOKING_SCRIPTS = List.of(
+            RedisSeatLock.LOCK_SCRIPT, RedisSeatLock.RENEW_SCRIPT, RedisSeatLock.UNLOCK_SCRIPT,
+            RedisSeatInventory.CLAIM_SCRIPT, RedisSeatInventory.CLAIM_ALL_SCRIPT, RedisSeatInventory.RELEASE_SCRIPT,
+            AdmissionControl.ADMIT_SCRIPT, SeatMapCache.APPLY_DELTA_SCRIPT);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private RedisSeatInventory seatInventory;
+
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
+    @Value("${flashtix.booking.mode:lock}")
+    private BookingMode bookingMode;
+
+    @Value("${flashtix.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${flashtix.warmup.db-connections:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int dbConnections;
+
+    @Value("${flashtix.warmup.bookings:1000}")
+    private int bookings;
+
+    @Value("${flashtix.warmup.max-duration-ms:15000}")
+    private long maxDurationMillis;
+
+    private final Timer warmupTimer;
+
+    public StartupWarmup(MeterRegistry registry) {
+        this.warmupTimer = Timer.builder("flashtix.warmup.duration")
+                .description("Time spent warming up pools and the booking path before readiness")
+                .register(registry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            fillConnectionPool();
+            loadScripts();
+            int booked = exerciseBookingPath(start + TimeUnit.MILLISECONDS.toNanos(maxDurationMillis));
+            log.info("Warm-up done in {} ms: {} database connections, {} Lua scripts, {} dummy bookings",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), dbConnections,
+                    BOOKING_SCRIPTS.size(), booked);
+        } catch (RuntimeException | SQLException e) {
+            log.warn("Warm-up failed, starting cold: {}", e.getMessage());
+        } finally {
+            warmupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Held all at once so Hikari opens them now; they stay idle in the pool until idle-timeout
+    private void fillConnectionPool() throws SQLException {
+        List<Connection> connections = new ArrayList<>(dbConnections);
+        try {
+            for (int i = 0; i < dbConnections; i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    // Scripts run as EVALSHA; loading them now spares the first callers a NOSCRIPT round trip
+    private void loadScripts() {
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.ping();
+            for (RedisScript<?> script : BOOKING_SCRIPTS) {
+                load(connection, script);
+            }
+            return null;
+        });
+    }
+
+    private static void load(RedisConnection connection, RedisScript<?> script) {
+        connection.scriptingCommands().scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int exerciseBookingPath(long deadlineNanos) {
+        int booked = 0;
+        while (booked < bookings && System.nanoTime() < deadlineNanos) {
+            int attempt = booked;
+            transactionTemplate.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                Ticket seat = new Ticket();
+                seat.setEventId(WARMUP_EVENT_ID);
+                seat.setSeatNumber("WARMUP-" + attempt);
+                seat.setStatus(TicketStatus.AVAILABLE);
+                Long seatId = ticketRepository.saveAndFlush(seat).getId();
+
+                // Joins this transaction, so the sale, its outbox row, the seat map delta and the sold seat
+                // index update all go with the rollback
+                bookingMetrics.withoutRecording(() -> ticketService.bookTicket(seatId, WARMUP_USER_ID));
+            });
+            booked++;
+        }
+        if (bookingMode == BookingMode.INVENTORY) {
+            seatInventory.evict(WARMUP_EVENT_ID);
+        }
+        return booked;
+    }
+}
@@ -1,99 +1,686 @@
 package com.flashtix.backend.service;
 
+import com.flashtix.backend.entity.OutboxEvent;
+import com.flashtix.backend.entity.OutboxEventType;
 import com.flashtix.backend.entity.Ticket;
 import com.flashtix.backend.entity.TicketStatus;
 import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.repository.OutboxRepository;
 import com.flashtix.backend.repository.TicketRepository;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
-import jakarta.persistence.OptimisticLockException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
-import org.springframework.data.redis.core.script.RedisScript;
-import org.springframework.orm.jpa.JpaOptimisticLockingFailureException;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Collections;
-import java.util.concurrent.TimeUnit;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
 
 @Service
+@Slf4j
 public class TicketService {
 
-    private static final String UNLOCK_LUA_SCRIPT = 
-        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
-    private static final long LOCK_TTL_SECONDS = 5;
-
     @Autowired
     private TicketRepository ticketRepository;
 
     @Autowired
-    private StringRedisTemplate redisTemplate;
+    private SeatLockStrategy seatLock;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private SoldSeatIndex soldSeatIndex;
+
+    @Autowired
+    private RedisSeatInventory seatInventory;
+
+    @Autowired
+    private BookingJournal bookingJournal;
+
+    @Autowired
+    private DatabaseBulkhead databaseBulkhead;
+
+    @Autowired
+    private BookingCoalescer bookingCoalescer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private HoldExpiryWheel holdExpiryWheel;
+
+    @Autowired
+    private SeatMapCache seatMapCache;
+
+    @Autowired
+    private SeatDirectory seatDirectory;
+
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
+    @Autowired
+    private SeatLeaseWatchdog leaseWatchdog;
+
+    @Autowired
+    private RedisCircuitBreaker redisBreaker;
+
+    @Value("${flashtix.booking.mode:lock}")
+    private BookingMode bookingMode;
+
+    @Value("${flashtix.lock.strategy:redis}")
+    private LockStrategy lockStrategy;
+
+    @Value("${flashtix.hold.ttl-seconds:600}")
+    private long holdTtlSeconds;
+
+    @Value("${flashtix.hold.sweep-batch-size:1000}")
+    private int holdSweepBatchSize;
 
     private final Counter soldOutCounter;
+    private final Counter soldOutFastPathCounter;
     private final Counter lockContentionCounter;
-    private final Timer bookingTimer;
+    private final Counter fencedCounter;
+    private final Counter fallbackCounter;
+    private final Semaphore fallbackPermits;
+
+    // Returned by acquire() when Redis can't be asked right now; never handed out as a real lease
+    private static final SeatLease REDIS_UNAVAILABLE = new SeatLease(0L, List.of(), 0L, 0L);
+
+    public TicketService(MeterRegistry registry,
+                         @Value("${flashtix.redis.breaker.fallback-max-concurrency:10}") int fallbackMaxConcurrency) {
+        this.fallbackPermits = new Semaphore(fallbackMaxConcurrency);
 
-    public TicketService(MeterRegistry registry) {
         this.soldOutCounter = Counter.builder("flashtix.sold.out")
                 .description("Count of booking attempts rejected because ticket was already sold")
                 .register(registry);
+
+        this.soldOutFastPathCounter = Counter.builder("flashtix.sold.out.fastpath")
+                .description("Count of booking attempts rejected from the in-memory sold seat index")
+                .register(registry);
         
         this.lockContentionCounter = Counter.builder("flashtix.lock.contention")
-                .description("Count of booking attempts that failed to acquire Redis lock")
+                .description("Count of booking attempts that failed to acquire the seat lock")
                 .register(registry);
-        
-        this.bookingTimer = Timer.builder("flashtix.booking.duration")
-                .description("Time taken to complete booking operation")
+
+        this.fencedCounter = Counter.builder("flashtix.lock.fenced")
+                .description("Count of database writes refused because a newer seat lock lease had written the row")
+                .register(registry);
+
+        this.fallbackCounter = Counter.builder("flashtix.lock.fallback")
+                .description("Count of bookings sent straight to the database because Redis was slow or down")
                 .register(registry);
     }
 
     public Ticket bookTicket(Long ticketId, Long userId) {
-        return bookingTimer.record(() -> {
-            String lockKey = "ticket_lock:" + ticketId;
-            String userIdStr = String.valueOf(userId);
+        // Fast path: known-sold seats are rejected from memory, no Redis or DB round trip
+        if (soldSeatIndex.isSold(ticketId)) {
+            soldOutFastPathCounter.increment();
+            throw TicketBookingException.soldOut();
+        }
+
+        // Concurrent attempts on the same seat collapse into one Redis/DB attempt per instance
+        return bookingCoalescer.execute(ticketId, () -> {
+            long start = System.nanoTime();
+            try {
+                Ticket ticket = bookingMode == BookingMode.INVENTORY
+                        ? bookFromInventory(ticketId, userId)
+                        : bookWithLock(ticketId, userId);
+                bookingMetrics.recordBooking(start, null);
+                return ticket;
+            } catch (RuntimeException e) {
+                bookingMetrics.recordBooking(start, e);
+                throw e;
+            }
+        });
+    }
+
+    private Ticket bookWithLock(Long ticketId, Long userId) {
+        Long eventId = seatDirectory.eventOf(ticketId);
+
+        long start = System.nanoTime();
+        SeatLease lease = acquire(() -> seatLock.tryLock(eventId, ticketId, userId));
+        bookingMetrics.recordPhase(BookingMetrics.Phase.LOCK_ACQUIRE, start);
+        if (lease == REDIS_UNAVAILABLE) {
+            return bookWithoutSeatLock(ticketId, userId);
+        }
+        if (lease == null) {
+            lockContentionCounter.increment();
+            throw TicketBookingException.tooManyRequests();
+        }
+
+        leaseWatchdog.watch(lease);
+        try {
+            return databaseBulkhead.execute(() -> bookInTransaction(ticketId, userId, lease.fencingToken()));
+        } finally {
+            leaseWatchdog.unwatch(lease);
+            start = System.nanoTime();
+            release(lease);
+            bookingMetrics.recordPhase(BookingMetrics.Phase.LOCK_RELEASE, start);
+        }
+    }
+
+    /**
+     * Booking while the Redis breaker is open: no seat lock, the conditional UPDATE alone picks the
+     * winner. Without the lock every attempt on a hot seat reaches a row lock, so only a few may run
+     * at once and the rest get a 409 straight away instead of queuing on the bulkhead.
+     */
+    public Ticket bookWithoutSeatLock(Long ticketId, Long userId) {
+        return withoutSeatLock(fencingToken -> bookInTransaction(ticketId, userId, fencingToken));
+    }
+
+    private <T> T withoutSeatLock(LongFunction<T> booking) {
+        if (!fallbackPermits.tryAcquire()) {
+            lockContentionCounter.increment();
+            throw TicketBookingException.tooManyRequests();
+        }
+        fallbackCounter.increment();
+        try {
+            // A clock token never rolls back a seat written under a lease issued before the outage
+            return databaseBulkhead.execute(() -> booking.apply(SeatLease.clockToken()));
+        } finally {
+            fallbackPermits.release();
+        }
+    }
+
+    // The seat lock through the Redis breaker: a lease, null when the seat is taken, or
+    // REDIS_UNAVAILABLE when the breaker is open or the call failed
+    private SeatLease acquire(Supplier<SeatLease> lock) {
+        if (lockStrategy == LockStrategy.LOCAL) {
+            return lock.get();
+        }
+        if (!redisBreaker.allowRequest()) {
+            return REDIS_UNAVAILABLE;
+        }
+        long start = System.nanoTime();
+        try {
+            SeatLease lease = lock.get();
+            redisBreaker.record(start, false);
+            return lease;
+        } catch (DataAccessException e) {
+            redisBreaker.record(start, true);
+            return REDIS_UNAVAILABLE;
+        }
+    }
+
+    // The booking is already decided here, so a failed release must not turn it into an error
+    private void release(SeatLease lease) {
+        try {
+            seatLock.unlock(lease);
+        } catch (DataAccessException e) {
+            log.warn("Could not release seat lock lease {}, it expires on its own: {}",
+                    lease.fencingToken(), e.getMessage());
+        }
+    }
+
+    // A self-call skips the @Transactional proxy, so the ticket update and its outbox row get an explicit
+    // transaction; it is begun and committed by hand so both (pool wait included) are timed as phases
+    private Ticket bookInTransaction(Long ticketId, Long userId, long fencingToken) {
+        PlatformTransactionManager transactionManager = transactionTemplate.getTransactionManager();
+        long start = System.nanoTime();
+        TransactionStatus status = transactionManager.getTransaction(transactionTemplate);
+        bookingMetrics.recordPhase(BookingMetrics.Phase.DB_BEGIN, start);
+
+        Ticket ticket;
+        try {
+            ticket = processBookingInDatabase(ticketId, userId, fencingToken);
+        } catch (RuntimeException | Error e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+
+        start = System.nanoTime();
+        transactionManager.commit(status);
+        bookingMetrics.recordPhase(BookingMetrics.Phase.DB_COMMIT, start);
+        return ticket;
+    }
+
+    // Inventory mode: one atomic Lua call decides the winner, Postgres is updated behind the response
+    private Ticket bookFromInventory(Long ticketId, Long userId) {
+        Long eventId = seatDirectory.eventOf(ticketId);
+        long start = System.nanoTime();
+        RedisSeatInventory.ClaimResult result = seatInventory.claim(eventId, ticketId, userId);
+        bookingMetrics.recordPhase(BookingMetrics.Phase.INVENTORY_CLAIM, start);
+
+        if (result == RedisSeatInventory.ClaimResult.UNKNOWN) {
+            // Seat not in Redis yet (e.g. seeded after startup): prime it from the DB once and retry
+            Ticket ticket = ticketRepository.findById(ticketId)
+                    .orElseThrow(() -> new TicketBookingException("Invalid Ticket ID"));
+            seatInventory.prime(ticket);
+            result = seatInventory.claim(eventId, ticketId, userId);
+        }
+
+        if (result == RedisSeatInventory.ClaimResult.HELD) {
+            // Not sold: the seat comes back if the hold is released or expires, so the index must not learn it
+            throw TicketBookingException.seatOnHold();
+        }
+        if (result != RedisSeatInventory.ClaimResult.CLAIMED) {
+            soldSeatIndex.markSold(ticketId);
+            soldOutCounter.increment();
+            throw TicketBookingException.soldOut();
+        }
+
+        return journalClaimedSeat(eventId, ticketId, userId);
+    }
+
+    /**
+     * Completes an inventory-mode booking whose seat was just claimed in Redis: the sale counts once
+     * the write-behind journal has it. If the journal stays full (the database is down or far behind)
+     * the claim is given back and the caller gets a 409 at once instead of a stuck request thread.
+     */
+    public Ticket journalClaimedSeat(Long eventId, Long ticketId, Long userId) {
+        if (eventId == StartupWarmup.WARMUP_EVENT_ID) {
+            // The warm-up's dummy seats are rolled back, so the journal would only count them as conflicts
+            return soldTicket(ticketId, eventId, userId);
+        }
+        if (!bookingJournal.tryAppend(List.of(ticketId), userId)) {
+            seatInventory.release(eventId, ticketId, userId);
+            throw TicketBookingException.tooManyRequests();
+        }
+        soldSeatIndex.markSold(ticketId);
+        seatMapCache.publish(eventId, ticketId, TicketStatus.SOLD);
+        return soldTicket(ticketId, eventId, userId);
+    }
+
+    /**
+     * Books several seats for one user, all or nothing.
+     * Seats are handled in ascending id order so concurrent group orders can't deadlock
+     * on seat locks or row locks; the whole group costs a constant number of round trips.
+     * All seats must belong to one event, which keeps the group on a single Redis slot.
+     */
+    public List<Ticket> bookTickets(List<Long> ticketIds, Long userId) {
+        List<Long> sortedIds = ticketIds.stream().distinct().sorted().toList();
+
+        if (sortedIds.stream().anyMatch(soldSeatIndex::isSold)) {
+            soldOutFastPathCounter.increment();
+            throw TicketBookingException.soldOut();
+        }
+
+        Long eventId = seatDirectory.eventOf(sortedIds.get(0));
+        if (sortedIds.stream().anyMatch(id -> !eventId.equals(seatDirectory.eventOf(id)))) {
+            throw new TicketBookingException("All seats in one order must belong to the same event");
+        }
+
+        long start = System.nanoTime();
+        try {
+            List<Ticket> booked = bookingMode == BookingMode.INVENTORY
+                    ? bookBatchFromInventory(eventId, sortedIds, userId)
+                    : bookBatchWithLock(eventId, sortedIds, userId);
+            bookingMetrics.recordBooking(start, null);
+            return booked;
+        } catch (RuntimeException e) {
+            bookingMetrics.recordBooking(start, e);
+            throw e;
+        }
+    }
+
+    private List<Ticket> bookBatchWithLock(Long eventId, List<Long> sortedIds, Long userId) {
+        SeatLease lease = acquire(() -> seatLock.tryLockAll(eventId, sortedIds, userId));
+        if (lease == REDIS_UNAVAILABLE) {
+            return withoutSeatLock(fencingToken -> transactionTemplate.execute(status ->
+                    processBatchBookingInDatabase(sortedIds, userId, fencingToken)));
+        }
+        if (lease == null) {
+            lockContentionCounter.increment();
+            throw TicketBookingException.tooManyRequests();
+        }
+
+        leaseWatchdog.watch(lease);
+        try {
+            return databaseBulkhead.execute(() -> transactionTemplate.execute(status ->
+                    processBatchBookingInDatabase(sortedIds, userId, lease.fencingToken())));
+        } finally {
+            leaseWatchdog.unwatch(lease);
+            release(lease);
+        }
+    }
 
-            Boolean acquired = redisTemplate.opsForValue()
-                .setIfAbsent(lockKey, userIdStr, LOCK_TTL_SECONDS, TimeUnit.SECONDS);
+    private List<Ticket> bookBatchFromInventory(Long eventId, List<Long> sortedIds, Long userId) {
+        RedisSeatInventory.ClaimResult result = seatInventory.claimAll(eventId, sortedIds, userId);
 
-            if (Boolean.FALSE.equals(acquired)) {
-                lockContentionCounter.increment();
-                throw new TicketBookingException("Too many requests! Please try again.");
+        if (result == RedisSeatInventory.ClaimResult.UNKNOWN) {
+            List<Ticket> tickets = ticketRepository.findAllById(sortedIds);
+            if (tickets.size() != sortedIds.size()) {
+                throw new TicketBookingException("Invalid Ticket ID");
             }
+            seatInventory.primeAll(tickets);
+            result = seatInventory.claimAll(eventId, sortedIds, userId);
+        }
 
-            try {
-                return processBookingInDatabase(ticketId, userId);
-            } finally {
-                RedisScript<Long> script = new DefaultRedisScript<>(UNLOCK_LUA_SCRIPT, Long.class);
-                redisTemplate.execute(script, Collections.singletonList(lockKey), userIdStr);
+        if (result == RedisSeatInventory.ClaimResult.HELD) {
+            throw TicketBookingException.seatOnHold();
+        }
+        if (result != RedisSeatInventory.ClaimResult.CLAIMED) {
+            soldOutCounter.increment();
+            throw TicketBookingException.soldOut();
+        }
+
+        if (!bookingJournal.tryAppend(sortedIds, userId)) {
+            sortedIds.forEach(ticketId -> seatInventory.release(eventId, ticketId, userId));
+            throw TicketBookingException.tooManyRequests();
+        }
+        return sortedIds.stream().map(ticketId -> {
+            soldSeatIndex.markSold(ticketId);
+            seatMapCache.publish(eventId, ticketId, TicketStatus.SOLD);
+            return soldTicket(ticketId, eventId, userId);
+        }).toList();
+    }
+
+    // Runs inside one transaction: any invalid, sold or fenced seat rolls back the whole group;
+    // the row version makes the write fail if another lease changed a seat after it was read
+    private List<Ticket> processBatchBookingInDatabase(List<Long> sortedIds, Long userId, long fencingToken) {
+        List<Ticket> tickets = ticketRepository.findAllById(sortedIds);
+        if (tickets.size() != sortedIds.size()) {
+            throw new TicketBookingException("Invalid Ticket ID");
+        }
+
+        for (Ticket ticket : tickets) {
+            if (TicketStatus.SOLD.equals(ticket.getStatus())) {
+                soldSeatIndex.markSold(ticket.getId());
+                soldOutCounter.increment();
+                throw TicketBookingException.soldOut();
+            }
+            if (TicketStatus.HELD.equals(ticket.getStatus())) {
+                throw TicketBookingException.seatOnHold();
+            }
+            if (isFenced(ticket, fencingToken)) {
+                fencedCounter.increment();
+                throw TicketBookingException.tooManyRequests();
+            }
+            ticket.setStatus(TicketStatus.SOLD);
+            ticket.setUserId(userId);
+            ticket.setFencingToken(fencingToken);
+            soldSeatIndex.markSoldOnCommit(ticket.getId());
+            seatMapCache.publish(ticket.getEventId(), ticket.getId(), TicketStatus.SOLD);
+        }
+
+        List<Ticket> saved = ticketRepository.saveAll(tickets);
+        outboxRepository.saveAll(saved.stream().map(TicketService::soldEvent).toList());
+        ticketRepository.flush();
+        return saved.stream().sorted(Comparator.comparing(Ticket::getId)).toList();
+    }
+
+    // --- Seat holds: AVAILABLE -> HELD (with expiry) -> SOLD on confirm, or back to AVAILABLE ---
+
+    public Ticket holdTicket(Long ticketId, Long userId) {
+        if (soldSeatIndex.isSold(ticketId)) {
+            soldOutFastPathCounter.increment();
+            throw TicketBookingException.soldOut();
+        }
+
+        Long eventId = seatDirectory.eventOf(ticketId);
+
+        // In inventory mode Redis decides who gets the seat, so the hold claims it there first
+        if (bookingMode == BookingMode.INVENTORY) {
+            RedisSeatInventory.ClaimResult result = seatInventory.hold(eventId, ticketId, userId);
+            if (result == RedisSeatInventory.ClaimResult.UNKNOWN) {
+                ticketRepository.findById(ticketId).ifPresent(seatInventory::prime);
+                result = seatInventory.hold(eventId, ticketId, userId);
+            }
+            if (result != RedisSeatInventory.ClaimResult.CLAIMED) {
+                throw new TicketBookingException("Seat is not available");
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusSeconds(holdTtlSeconds);
+        Ticket held;
+        try {
+            held = underSeatLock(eventId, ticketId, userId, fencingToken -> transactionTemplate.execute(status -> {
+                if (ticketRepository.holdIfAvailable(ticketId, userId, expiresAt, fencingToken, now) == 0) {
+                    throw holdRefusal(ticketId, fencingToken, "Seat is not available");
+                }
+                return ticketRepository.findById(ticketId).orElseThrow();
+            }));
+        } catch (RuntimeException e) {
+            if (bookingMode == BookingMode.INVENTORY) {
+                seatInventory.releaseHold(eventId, ticketId, userId);
+            }
+            throw e;
+        }
+
+        holdExpiryWheel.schedule(ticketId, expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        seatMapCache.publish(eventId, ticketId, TicketStatus.HELD);
+        return held;
+    }
+
+    public Ticket confirmHold(Long ticketId, Long userId) {
+        Long eventId = seatDirectory.eventOf(ticketId);
+        Ticket confirmed = underSeatLock(eventId, ticketId, userId, fencingToken -> transactionTemplate.execute(status -> {
+            if (ticketRepository.confirmHold(ticketId, userId, fencingToken, LocalDateTime.now()) == 0) {
+                throw holdRefusal(ticketId, fencingToken, "No active hold for this user on this seat");
+            }
+            Ticket sold = ticketRepository.findById(ticketId).orElseThrow();
+            outboxRepository.save(soldEvent(sold));
+            return sold;
+        }));
+
+        if (bookingMode == BookingMode.INVENTORY) {
+            seatInventory.confirmHold(confirmed.getEventId(), ticketId, userId);
+        }
+        soldSeatIndex.markSoldOnCommit(ticketId);
+        seatMapCache.publish(confirmed.getEventId(), ticketId, TicketStatus.SOLD);
+        return confirmed;
+    }
+
+    public Ticket releaseHold(Long ticketId, Long userId) {
+        Long eventId = seatDirectory.eventOf(ticketId);
+        Ticket released = underSeatLock(eventId, ticketId, userId, fencingToken -> transactionTemplate.execute(status -> {
+            if (ticketRepository.releaseHold(ticketId, userId, fencingToken, LocalDateTime.now()) == 0) {
+                throw holdRefusal(ticketId, fencingToken, "No active hold for this user on this seat");
+            }
+            return ticketRepository.findById(ticketId).orElseThrow();
+        }));
+
+        if (bookingMode == BookingMode.INVENTORY) {
+            seatInventory.releaseHold(released.getEventId(), ticketId, userId);
+        }
+        seatMapCache.publish(released.getEventId(), ticketId, TicketStatus.AVAILABLE);
+        return released;
+    }
+
+    /**
+     * Hold, confirm and release write the row under a seat lock lease like a sale does, and stamp
+     * its token. A seat that went back to AVAILABLE thus still carries the newest lease's token,
+     * and a booking whose lease ran out in the meantime is refused at the database.
+     */
+    private <T> T underSeatLock(Long eventId, Long ticketId, Long userId, LongFunction<T> write) {
+        SeatLease lease = acquire(() -> seatLock.tryLock(eventId, ticketId, userId));
+        if (lease == REDIS_UNAVAILABLE) {
+            return withoutSeatLock(write);
+        }
+        if (lease == null) {
+            lockContentionCounter.increment();
+            throw TicketBookingException.tooManyRequests();
+        }
+
+        leaseWatchdog.watch(lease);
+        try {
+            return databaseBulkhead.execute(() -> write.apply(lease.fencingToken()));
+        } finally {
+            leaseWatchdog.unwatch(lease);
+            release(lease);
+        }
+    }
+
+    // A hold write matched no row: the fence refused it, or the seat simply isn't in the expected state
+    private TicketBookingException holdRefusal(Long ticketId, long fencingToken, String reason) {
+        Ticket ticket = ticketRepository.findById(ticketId)
+                .orElseThrow(() -> new TicketBookingException("Invalid Ticket ID"));
+        if (isFenced(ticket, fencingToken)) {
+            fencedCounter.increment();
+            return TicketBookingException.tooManyRequests();
+        }
+        return new TicketBookingException(reason);
+    }
+
+    // Called by the timer wheel with a batch of due holds; rows that were confirmed,
+    // released or re-held since are filtered out by the expiry guard and left untouched
+    private void expireHolds(List<Long> ticketIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Ticket> expired = transactionTemplate.execute(status -> {
+            List<Ticket> due = ticketRepository.findExpiredHolds(ticketIds, now);
+            if (!due.isEmpty()) {
+                ticketRepository.releaseExpiredHolds(due.stream().map(Ticket::getId).toList(), now);
             }
+            return due;
         });
+        returnToInventory(expired);
+    }
+
+    // Safety net for holds whose instance died before its wheel fired
+    @Scheduled(fixedDelayString = "${flashtix.hold.sweep-interval-ms:60000}")
+    public void sweepExpiredHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Ticket> expired = transactionTemplate.execute(status -> {
+            List<Ticket> due = ticketRepository.findExpiredHolds(now, Limit.of(holdSweepBatchSize));
+            if (!due.isEmpty()) {
+                ticketRepository.releaseExpiredHolds(due.stream().map(Ticket::getId).toList(), now);
+            }
+            return due;
+        });
+        returnToInventory(expired);
+    }
+
+    private void returnToInventory(List<Ticket> expired) {
+        if (expired == null || expired.isEmpty()) {
+            return;
+        }
+        if (bookingMode == BookingMode.INVENTORY) {
+            expired.forEach(ticket -> seatInventory.releaseHold(ticket.getEventId(), ticket.getId(), ticket.getUserId()));
+        }
+        expired.forEach(ticket -> seatMapCache.publish(ticket.getEventId(), ticket.getId(), TicketStatus.AVAILABLE));
+        log.info("Released {} expired seat holds", expired.size());
     }
 
-    // ✅ KEEP ONLY THIS ONE METHOD - Delete any duplicate below this
-    @Retryable(
-        value = {JpaOptimisticLockingFailureException.class, OptimisticLockException.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 100, multiplier = 2)
-    )
+    @PostConstruct
+    void registerHoldExpiry() {
+        holdExpiryWheel.onExpiry(this::expireHolds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleExistingHolds() {
+        // Holds placed before a restart go back on the wheel; anything already due expires on the next tick
+        List<Ticket> held = ticketRepository.findByStatus(TicketStatus.HELD);
+        held.forEach(ticket -> holdExpiryWheel.schedule(ticket.getId(),
+                ticket.getHoldExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void primeInventory() {
+        if (bookingMode != BookingMode.INVENTORY) {
+            return;
+        }
+        // One event (one partition) at a time, so startup never loads every ticket at once
+        for (Long eventId : ticketRepository.findEventIds()) {
+            seatInventory.primeAll(ticketRepository.findByEventId(eventId));
+
+            // Recover claims that were won in Redis but never reached Postgres (e.g. crash before a flush)
+            Map<Long, Long> unflushed = seatInventory.findClaims(eventId,
+                    ticketRepository.findIdsByEventIdAndStatus(eventId, TicketStatus.AVAILABLE));
+            unflushed.forEach(bookingJournal::append);
+            if (!unflushed.isEmpty()) {
+                log.warn("Re-journaled {} bookings for event {} found in Redis but not in the database",
+                        unflushed.size(), eventId);
+            }
+        }
+    }
+
+    /**
+     * Sells one seat with a single conditional UPDATE, so the row itself decides the race.
+     * A loser is rejected at once: there is no version conflict to retry, and a seat that is
+     * already sold could never be won by retrying anyway. The row is read back once afterwards:
+     * by the winner for its response, by a loser to learn why it lost.
+     * <p>
+     * {@code fencingToken} is the token of the caller's seat lock lease. It is stored on the row,
+     * and a caller whose lease is older than the one that last wrote the row is refused, so a
+     * holder whose lease ran out mid-commit can't overwrite the work of the next holder.
+     */
     @Transactional
-    public Ticket processBookingInDatabase(Long ticketId, Long userId) {
+    public Ticket processBookingInDatabase(Long ticketId, Long userId, long fencingToken) {
+        Long eventId = seatDirectory.eventOf(ticketId);
+
+        long start = System.nanoTime();
+        int updated = ticketRepository.sellIfAvailable(ticketId, eventId, userId, fencingToken, LocalDateTime.now());
+        if (updated == 0) {
+            throw rejectionFor(ticketId, fencingToken);
+        }
+        // The UPDATE cleared the persistence context, so this reads the row as the UPDATE left it;
+        // the response and any idempotent replay of it carry the whole ticket
+        Ticket sold = ticketRepository.findById(ticketId).orElseThrow();
+        outboxRepository.save(soldEvent(sold));
+        bookingMetrics.recordPhase(BookingMetrics.Phase.DB_WRITE, start);
+
+        // Both only take effect after commit when a transaction is active, so neither this node's
+        // fast path nor the seat map ever shows a rolled-back sale
+        soldSeatIndex.markSoldOnCommit(ticketId);
+        seatMapCache.publish(eventId, ticketId, TicketStatus.SOLD);
+        return sold;
+    }
+
+    private TicketBookingException rejectionFor(Long ticketId, long fencingToken) {
+        long start = System.nanoTime();
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new TicketBookingException("Invalid Ticket ID"));
+        bookingMetrics.recordPhase(BookingMetrics.Phase.DB_READ, start);
 
         if (TicketStatus.SOLD.equals(ticket.getStatus())) {
+            // Learn about seats sold by other instances so the next attempt takes the fast path
+            soldSeatIndex.markSold(ticketId);
             soldOutCounter.increment();
-            throw new TicketBookingException("Sold Out!");
+            return TicketBookingException.soldOut();
+        }
+        if (TicketStatus.HELD.equals(ticket.getStatus())) {
+            return TicketBookingException.seatOnHold();
+        }
+        if (isFenced(ticket, fencingToken)) {
+            // Our lease expired and a newer holder has already written the row
+            fencedCounter.increment();
+            return TicketBookingException.tooManyRequests();
         }
+        // Sold or held and released again since the UPDATE ran
+        return new TicketBookingException("Seat is not available");
+    }
+
+    private static boolean isFenced(Ticket ticket, long fencingToken) {
+        return ticket.getFencingToken() != null && ticket.getFencingToken() >= fencingToken;
+    }
 
+    // The row is only journaled so far, so the response is built from what is known
+    private static Ticket soldTicket(Long ticketId, Long eventId, Long userId) {
+        Ticket ticket = new Ticket();
+        ticket.setId(ticketId);
+        ticket.setEventId(eventId);
         ticket.setStatus(TicketStatus.SOLD);
         ticket.setUserId(userId);
-        return ticketRepository.save(ticket);
+        return ticket;
+    }
+
+    // Saved in the caller's transaction, so downstream consumers hear about a sale exactly when it commits
+    private static OutboxEvent soldEvent(Ticket ticket) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(OutboxEventType.TICKET_SOLD);
+        event.setTicketId(ticket.getId());
+        event.setEventId(ticket.getEventId());
+        event.setUserId(ticket.getUserId());
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
     }
-    
-    // ❌ DELETE any second processBookingInDatabase method if it exists below
 }
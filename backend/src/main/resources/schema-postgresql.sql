@@ -0,0 +1,22 @@
+-- Tickets are LIST-partitioned by event: each on-sale gets its own heap and indexes, so one event's
+-- hot rows, dead tuples and vacuum work never touch another's. EventService creates one partition per
+-- event; the default partition only catches rows for events created without one.
+-- Runs on every startup before Hibernate (ddl-auto=update), which then adds the remaining indexes.
+-- An existing unpartitioned tickets table is left as is and has to be migrated by hand.
+CREATE TABLE IF NOT EXISTS tickets (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    event_id        BIGINT       NOT NULL,
+    seat_number     VARCHAR(255) NOT NULL,
+    status          VARCHAR(255) NOT NULL,
+    user_id         BIGINT,
+    hold_expires_at TIMESTAMP(6),
+    version         BIGINT,
+    fencing_token   BIGINT,
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6),
+    -- Partitioned primary keys must include the partition key; id stays unique on its own via the sequence
+    PRIMARY KEY (id, event_id),
+    CONSTRAINT uk_event_seat UNIQUE (event_id, seat_number)
+) PARTITION BY LIST (event_id);
+
+CREATE TABLE IF NOT EXISTS tickets_default PARTITION OF tickets DEFAULT;
@@ -0,0 +1,101 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.repository.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Own context: admission is off everywhere else. One admitted user per 2 s per event, two requests per user
+@SpringBootTest(properties = {
+        "flashtix.admission.enabled=true",
+        "flashtix.admission.waiting-room.admit-rate-per-second=0.5",
+        "flashtix.admission.user-rate-per-second=0.1",
+        "flashtix.admission.user-burst=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AdmissionControlTest {
+
+    private static final long BUSY_EVENT = 9101L;
+    private static final long QUIET_EVENT = 9102L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private Long busySeat;
+    private Long otherBusySeat;
+    private Long quietSeat;
+
+    @BeforeEach
+    public void setup() {
+        for (long eventId : new long[]{BUSY_EVENT, QUIET_EVENT}) {
+            redisTemplate.delete(redisTemplate.keys("flashtix:waitingroom:{" + eventId + "}:*"));
+        }
+        busySeat = seat(BUSY_EVENT);
+        otherBusySeat = seat(BUSY_EVENT);
+        quietSeat = seat(QUIET_EVENT);
+    }
+
+    @Test
+    public void testWaitingRoomIsPerEventAndCoversEveryBookingEndpoint() throws Exception {
+        mockMvc.perform(post("/api/tickets/book").param("ticketId", busySeat.toString()).param("userId", "9001"))
+                .andExpect(status().isOk());
+
+        // Second user of the same event: queued behind the first, with the wait spelled out
+        mockMvc.perform(post("/api/tickets/book").param("ticketId", otherBusySeat.toString()).param("userId", "9002"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(header().string("X-Queue-Position", "1"))
+                .andExpect(jsonPath("$.queuePosition").value(1));
+
+        // The non-blocking endpoint joins the same queue
+        mockMvc.perform(post("/api/tickets/book/reactive").param("ticketId", otherBusySeat.toString()).param("userId", "9002"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("X-Queue-Position", "1"));
+
+        // Another event's queue is not held up by this one
+        mockMvc.perform(post("/api/tickets/hold").param("ticketId", quietSeat.toString()).param("userId", "9003"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testUserRateLimitAnswersWithRetryAfterOnly() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/tickets/book").param("ticketId", "abc").param("userId", "9004"))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(post("/api/tickets/book").param("ticketId", "abc").param("userId", "9004"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(header().doesNotExist("X-Queue-Position"));
+    }
+
+    private Long seat(long eventId) {
+        Ticket t = new Ticket();
+        t.setEventId(eventId);
+        t.setSeatNumber("ADMIT-" + UUID.randomUUID());
+        t.setStatus(TicketStatus.AVAILABLE);
+        return ticketRepository.save(t).getId();
+    }
+}
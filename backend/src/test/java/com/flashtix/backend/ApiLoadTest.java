@@ -5,6 +5,7 @@ import com.flashtix.backend.entity.TicketStatus;
 import com.flashtix.backend.repository.TicketRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.test.context.ActiveProfiles;
@@ -14,6 +15,7 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -31,11 +33,15 @@ public class ApiLoadTest {
     @Autowired
     private TicketRepository ticketRepository;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Test
     public void testHighConcurrencyAttack() throws InterruptedException {
         // Setup: Create one ticket
         ticketRepository.deleteAll();
         Ticket ticket = new Ticket();
+        ticket.setEventId(1L);
         ticket.setSeatNumber("Seat-Attack");
         ticket.setStatus(TicketStatus.AVAILABLE);
         ticket = ticketRepository.save(ticket);
@@ -56,13 +62,16 @@ public class ApiLoadTest {
         AtomicInteger successCount = new AtomicInteger(0);
         AtomicInteger conflictCount = new AtomicInteger(0);
         AtomicInteger otherErrors = new AtomicInteger(0);
+        long[] latenciesNanos = new long[numberOfThreads];
 
         System.out.println("🚀 STARTING MASSIVE ATTACK with " + numberOfThreads + " users on localhost:" + port + "...");
         long startTime = System.currentTimeMillis();
 
         for (int i = 0; i < numberOfThreads; i++) {
+            int requestIndex = i;
             int userId = 1000 + i;
             executor.submit(() -> {
+                long requestStart = System.nanoTime();
                 try {
                     HttpRequest request = HttpRequest.newBuilder()
                             .uri(URI.create(url + userId))
@@ -83,6 +92,8 @@ public class ApiLoadTest {
                 } catch (Exception e) {
                     otherErrors.incrementAndGet();
                     // Don't print stack trace for each error to avoid console flood
+                } finally {
+                    latenciesNanos[requestIndex] = System.nanoTime() - requestStart;
                 }
             });
         }
@@ -102,6 +113,15 @@ public class ApiLoadTest {
         System.out.println("Other Errors: " + otherErrors.get());
         System.out.println("Throughput: " + (numberOfThreads * 1000.0 / duration) + " requests/sec");
 
+        // Same summary line for the platform and virtual thread runs so they can be compared side by side
+        Arrays.sort(latenciesNanos);
+        System.out.printf("[%s threads] p50=%.1fms p99=%.1fms max=%.1fms throughput=%.0f req/s%n",
+                virtualThreads ? "virtual" : "platform",
+                latenciesNanos[numberOfThreads / 2] / 1_000_000.0,
+                latenciesNanos[(int) (numberOfThreads * 0.99)] / 1_000_000.0,
+                latenciesNanos[numberOfThreads - 1] / 1_000_000.0,
+                numberOfThreads * 1000.0 / duration);
+
         // CRITICAL ASSERTIONS
         assertEquals(1, successCount.get(), 
             "Exactly one request should succeed with 200 OK");
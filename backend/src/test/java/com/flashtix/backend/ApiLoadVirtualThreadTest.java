@@ -0,0 +1,14 @@
+package com.flashtix.backend;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Re-runs the {@link ApiLoadTest} attack with Tomcat on virtual threads.
+ * Compare its "[virtual threads]" summary line with the "[platform threads]" one.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+public class ApiLoadVirtualThreadTest extends ApiLoadTest {
+}
@@ -0,0 +1,113 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.repository.TicketRepository;
+import com.flashtix.backend.service.TicketService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BatchBookingTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private final List<Long> seatIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        // Bulk DELETE: an earlier test's sale may still be landing from the write-behind journal
+        ticketRepository.deleteAllInBatch();
+        // Ids restart with every test run but Redis keeps its state, so drop stale inventory claims
+        redisTemplate.delete("flashtix:inventory:{1}");
+        seatIds.clear();
+        for (int i = 1; i <= 4; i++) {
+            Ticket t = new Ticket();
+            t.setEventId(1L);
+            t.setSeatNumber("GROUP-" + i);
+            t.setStatus(TicketStatus.AVAILABLE);
+            seatIds.add(ticketRepository.save(t).getId());
+        }
+    }
+
+    @Test
+    public void testGroupIsAllOrNothing() {
+        List<Ticket> booked = ticketService.bookTickets(List.of(seatIds.get(1), seatIds.get(0)), 501L);
+        assertEquals(2, booked.size());
+        assertEquals(seatIds.get(0), booked.get(0).getId(), "Results come back in seat id order");
+
+        // Overlaps a sold seat: nothing in the group may be sold
+        assertThrows(TicketBookingException.class,
+                () -> ticketService.bookTickets(List.of(seatIds.get(1), seatIds.get(2)), 502L));
+        assertEquals(TicketStatus.AVAILABLE, ticketRepository.findById(seatIds.get(2)).orElseThrow().getStatus());
+
+        // Contains an unknown seat: rolled back as a whole
+        assertThrows(TicketBookingException.class,
+                () -> ticketService.bookTickets(List.of(seatIds.get(3), Long.MAX_VALUE - 1), 503L));
+        assertEquals(TicketStatus.AVAILABLE, ticketRepository.findById(seatIds.get(3)).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testOverlappingGroupsNeverShareASeat() throws InterruptedException {
+        int groups = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(50);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger successCount = new AtomicInteger(0);
+
+        for (int i = 0; i < groups; i++) {
+            long userId = 2000 + i;
+            // Alternate between two groups that share seat 1, in both orders
+            List<Long> group = i % 2 == 0
+                    ? List.of(seatIds.get(0), seatIds.get(1))
+                    : List.of(seatIds.get(2), seatIds.get(1));
+            executor.submit(() -> {
+                try {
+                    latch.await();
+                    ticketService.bookTickets(group, userId);
+                    successCount.incrementAndGet();
+                } catch (Exception e) {
+                    // expected for all but one group
+                }
+            });
+        }
+
+        latch.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(1, successCount.get(), "Exactly one group should get the shared seat");
+        // Inventory mode writes the winning group behind the response, so give it time to land
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (soldCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, soldCount(), "Only the winning group's two seats should be sold");
+    }
+
+    private long soldCount() {
+        return ticketRepository.findAll().stream().filter(t -> t.getStatus() == TicketStatus.SOLD).count();
+    }
+}
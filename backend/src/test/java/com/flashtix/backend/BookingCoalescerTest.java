@@ -0,0 +1,101 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.service.BookingCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingCoalescerTest {
+
+    @Test
+    public void testConcurrentAttemptsOnOneSeatRunOnce() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BookingCoalescer coalescer = new BookingCoalescer(registry);
+
+        int callers = 50;
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger soldOutCount = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        for (int i = 0; i < callers; i++) {
+            executor.submit(() -> {
+                try {
+                    coalescer.execute(1L, () -> {
+                        attempts.incrementAndGet();
+                        leaderStarted.countDown();
+                        try {
+                            releaseLeader.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return new Ticket();
+                    });
+                    successCount.incrementAndGet();
+                } catch (TicketBookingException e) {
+                    soldOutCount.incrementAndGet();
+                }
+            });
+        }
+
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200); // let the other callers pile up behind the leader
+        releaseLeader.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, successCount.get(), "Only the leader should win");
+        assertEquals(callers - 1, soldOutCount.get());
+        assertEquals(callers - 1 - (attempts.get() - 1), registry.counter("flashtix.booking.coalesced").count(),
+                "Every caller that did not run its own attempt must be counted as coalesced");
+        assertEquals(0, registry.get("flashtix.booking.coalesced.waiting").gauge().value());
+    }
+
+    @Test
+    public void testWaitersShareTheLeadersFailure() throws Exception {
+        BookingCoalescer coalescer = new BookingCoalescer(new SimpleMeterRegistry());
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<String> leader = executor.submit(() -> outcomeOf(() -> coalescer.execute(7L, () -> {
+            leaderStarted.countDown();
+            try {
+                releaseLeader.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new TicketBookingException("Invalid Ticket ID");
+        })));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        Future<String> waiter = executor.submit(() -> outcomeOf(() -> coalescer.execute(7L, Ticket::new)));
+        Thread.sleep(100);
+        releaseLeader.countDown();
+
+        assertEquals("Invalid Ticket ID", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("Invalid Ticket ID", waiter.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    private static String outcomeOf(Runnable booking) {
+        try {
+            booking.run();
+            return "booked";
+        } catch (TicketBookingException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.service.BookingJournal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingJournalTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void testFullJournalRefusesInsteadOfBlocking() throws InterruptedException {
+        // Nothing listens on port 1, so every flush fails and the flusher keeps retrying its first batch
+        BookingJournal journal = journal(new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/nowhere"), 2, 200);
+        journal.start();
+        try {
+            assertTrue(journal.tryAppend(List.of(1L, 2L), 7L), "Taken by the flusher, which then stalls on it");
+            assertTrue(journal.tryAppend(List.of(3L, 4L), 7L), "Fills the queue");
+
+            long start = System.nanoTime();
+            assertFalse(journal.tryAppend(List.of(5L), 7L), "No room, and the database isn't draining it");
+            assertTrue(System.nanoTime() - start < 5_000_000_000L, "Refused after the append timeout, not stuck");
+            assertEquals(1.0, registry.get("flashtix.journal.rejected").counter().count());
+        } finally {
+            journal.stop();
+        }
+    }
+
+    @Test
+    public void testFailingRowIsSetAsideWithoutHoldingUpTheBatch() throws InterruptedException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:journal;DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        // The check constraint makes one row of the batch fail while the database stays up
+        jdbc.execute("CREATE TABLE tickets (id BIGINT PRIMARY KEY, event_id BIGINT, status VARCHAR(20), " +
+                "user_id BIGINT CHECK (user_id > 0), version BIGINT, updated_at TIMESTAMP)");
+        jdbc.execute("CREATE TABLE booking_outbox (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, type VARCHAR(32), " +
+                "ticket_id BIGINT, event_id BIGINT, user_id BIGINT, created_at TIMESTAMP)");
+        for (long id = 1; id <= 3; id++) {
+            jdbc.update("INSERT INTO tickets (id, event_id, status, version) VALUES (?, 1, 'AVAILABLE', 0)", id);
+        }
+
+        BookingJournal journal = journal(dataSource, 100, 200);
+        journal.start();
+        try {
+            assertTrue(journal.tryAppend(List.of(1L), 11L));
+            assertTrue(journal.tryAppend(List.of(2L), -1L));
+            assertTrue(journal.tryAppend(List.of(3L), 13L));
+
+            long deadline = System.currentTimeMillis() + 15_000;
+            while (registry.get("flashtix.journal.abandoned").counter().count() < 1
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+
+        } finally {
+            // Drains the queue before returning
+            journal.stop();
+        }
+
+        assertEquals(1.0, registry.get("flashtix.journal.abandoned").counter().count());
+        assertEquals(List.of("SOLD", "AVAILABLE", "SOLD"),
+                jdbc.queryForList("SELECT status FROM tickets ORDER BY id", String.class));
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM booking_outbox", Integer.class));
+    }
+
+    private BookingJournal journal(DriverManagerDataSource dataSource, int capacity, long appendTimeoutMs) {
+        return new BookingJournal(new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                registry, capacity, 20, 10, appendTimeoutMs);
+    }
+}
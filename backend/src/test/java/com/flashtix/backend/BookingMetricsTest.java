@@ -0,0 +1,103 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.repository.TicketRepository;
+import com.flashtix.backend.service.BookingMode;
+import com.flashtix.backend.service.ReactiveBookingService;
+import com.flashtix.backend.service.TicketService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookingMetricsTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ReactiveBookingService reactiveBookingService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${flashtix.booking.mode:lock}")
+    private BookingMode bookingMode;
+
+    @Test
+    public void testBookingsAreTimedByOutcomeAndPhase() {
+        long successes = outcome("success").count();
+        long soldOut = outcome("sold-out").count();
+        long firstPhase = phase(bookingMode == BookingMode.INVENTORY ? "inventory.claim" : "lock.acquire").count();
+
+        ticketService.bookTicket(seat(TicketStatus.AVAILABLE), 701L);
+        // Sold by another instance: not in the local sold index, so the attempt reaches Redis/the database
+        assertThrows(TicketBookingException.class, () -> ticketService.bookTicket(seat(TicketStatus.SOLD), 702L));
+
+        assertEquals(successes + 1, outcome("success").count());
+        assertEquals(soldOut + 1, outcome("sold-out").count());
+        assertEquals(firstPhase + 2,
+                phase(bookingMode == BookingMode.INVENTORY ? "inventory.claim" : "lock.acquire").count());
+        if (bookingMode == BookingMode.LOCK) {
+            for (String dbPhase : new String[]{"db.begin", "db.read", "db.write", "db.commit", "lock.release"}) {
+                assertTrue(phase(dbPhase).count() > 0, dbPhase + " is recorded");
+            }
+        }
+
+        // SLO boundaries are published as histogram buckets
+        assertTrue(Arrays.stream(outcome("success").takeSnapshot().histogramCounts())
+                        .anyMatch(bucket -> bucket.bucket(TimeUnit.MILLISECONDS) == 100.0),
+                "100ms SLO bucket is published");
+    }
+
+    @Test
+    public void testReactiveBookingsShareTheSameTimers() {
+        String firstPhase = bookingMode == BookingMode.INVENTORY ? "inventory.claim" : "lock.acquire";
+        long successes = outcome("success").count();
+        long soldOut = outcome("sold-out").count();
+        long claims = phase(firstPhase).count();
+
+        reactiveBookingService.bookTicket(seat(TicketStatus.AVAILABLE), 703L).block();
+        assertThrows(TicketBookingException.class,
+                () -> reactiveBookingService.bookTicket(seat(TicketStatus.SOLD), 704L).block());
+
+        assertEquals(successes + 1, outcome("success").count());
+        assertEquals(soldOut + 1, outcome("sold-out").count(), "Classified by the exception's reason");
+        assertTrue(phase(firstPhase).count() >= claims + 2, firstPhase + " is recorded");
+        if (bookingMode == BookingMode.LOCK) {
+            assertTrue(phase("lock.release").count() > 0);
+        }
+    }
+
+    private Long seat(TicketStatus status) {
+        Ticket t = new Ticket();
+        t.setEventId(1L);
+        t.setSeatNumber("METRICS-" + UUID.randomUUID());
+        t.setStatus(status);
+        return ticketRepository.save(t).getId();
+    }
+
+    private Timer outcome(String outcome) {
+        return registry.get("flashtix.booking.duration").tag("outcome", outcome).timer();
+    }
+
+    private Timer phase(String phase) {
+        return registry.get("flashtix.booking.phase").tag("phase", phase).timer();
+    }
+}
@@ -0,0 +1,70 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.dto.SeatAvailability;
+import com.flashtix.backend.dto.SeatView;
+import com.flashtix.backend.entity.Event;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.repository.TicketRepository;
+import com.flashtix.backend.service.EventService;
+import com.flashtix.backend.service.RedisSeatLock;
+import com.flashtix.backend.service.SeatMapCache;
+import com.flashtix.backend.service.TicketService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventScopingTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private SeatMapCache seatMapCache;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Test
+    public void testEventsAreIndependent() {
+        ticketRepository.deleteAll();
+        // Event and ticket ids restart with every test run but Redis keeps its state
+        redisTemplate.delete(redisTemplate.keys("flashtix:inventory:*"));
+        Event concert = eventService.createEvent("Concert", "Arena", null, 3);
+        Event match = eventService.createEvent("Match", "Stadium", null, 3);
+
+        // Seat labels only have to be unique within an event
+        List<SeatView> concertSeats = List.copyOf(seatMapCache.getSeatMap(concert.getId()));
+        List<SeatView> matchSeats = List.copyOf(seatMapCache.getSeatMap(match.getId()));
+        assertEquals("Seat-1", concertSeats.get(0).seatNumber());
+        assertEquals("Seat-1", matchSeats.get(0).seatNumber());
+
+        ticketService.bookTicket(concertSeats.get(0).id(), 5L);
+
+        assertEquals(new SeatAvailability(2, 0, 1, 3), seatMapCache.getAvailability(concert.getId()));
+        assertEquals(new SeatAvailability(3, 0, 0, 3), seatMapCache.getAvailability(match.getId()));
+
+        assertThrows(TicketBookingException.class,
+                () -> ticketService.bookTickets(List.of(concertSeats.get(1).id(), matchSeats.get(1).id()), 6L),
+                "A group order can't span events");
+        assertEquals(new SeatAvailability(3, 0, 0, 3), seatMapCache.getAvailability(match.getId()));
+    }
+
+    @Test
+    public void testLockKeysAreHashTaggedByEvent() {
+        assertEquals("ticket_lock:{7}:42", RedisSeatLock.lockKey(7L, 42L));
+    }
+}
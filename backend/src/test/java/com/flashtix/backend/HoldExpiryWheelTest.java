@@ -0,0 +1,50 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.service.HoldExpiryWheel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HoldExpiryWheelTest {
+
+    @Test
+    public void testHoldsExpireWithinATickOfTheirDeadline() throws InterruptedException {
+        // 20 ms ticks on an 8-slot wheel: one rotation is only 160 ms, so most deadlines are rotations away
+        HoldExpiryWheel wheel = new HoldExpiryWheel(new SimpleMeterRegistry(), 20, 8, 500);
+        Map<Long, Long> firedAt = new ConcurrentHashMap<>();
+        wheel.onExpiry(ids -> ids.forEach(id -> firedAt.put(id, System.currentTimeMillis())));
+        wheel.start();
+        try {
+            long now = System.currentTimeMillis();
+            Map<Long, Long> deadlines = Map.of(
+                    1L, now - 1_000,  // already due, e.g. rescheduled after a restart
+                    2L, now + 30,
+                    3L, now + 250,
+                    4L, now + 610);
+            deadlines.forEach(wheel::schedule);
+
+            Thread.sleep(200);
+            // A hold scheduled into a bucket the ticker has just passed must not wait a whole rotation
+            wheel.schedule(5L, System.currentTimeMillis() + 5);
+            long fifthDeadline = System.currentTimeMillis() + 5;
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (firedAt.size() < 5 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(5, firedAt.size(), "Every hold expired");
+            deadlines.forEach((id, due) -> {
+                assertTrue(firedAt.get(id) >= due, "Hold " + id + " never expires early");
+                assertTrue(firedAt.get(id) < Math.max(due, now) + 100, "Hold " + id + " expired within a tick or two");
+            });
+            assertTrue(firedAt.get(5L) < fifthDeadline + 100, "A late-scheduled hold expires on the next ticks");
+        } finally {
+            wheel.stop();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.flashtix.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.repository.TicketRepository;
+import com.flashtix.backend.service.BookingMode;
+import com.flashtix.backend.service.IdempotencyStore;
+import com.flashtix.backend.service.TicketService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class IdempotentBookingTest {
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${flashtix.booking.mode:lock}")
+    private BookingMode bookingMode;
+
+    private Long ticketId;
+
+    @BeforeEach
+    public void setup() {
+        // Ids restart with every test run but Redis keeps its state, so drop stale inventory claims
+        redisTemplate.delete("flashtix:inventory:{1}");
+        Ticket t = new Ticket();
+        t.setEventId(1L);
+        t.setSeatNumber("IDEM-" + UUID.randomUUID());
+        t.setStatus(TicketStatus.AVAILABLE);
+        ticketId = ticketRepository.save(t).getId();
+    }
+
+    @Test
+    public void testRetryAfterWinReturnsOriginalTicket() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger attempts = new AtomicInteger();
+
+        Ticket first = idempotencyStore.execute(key, ticketId, 601L, () -> {
+            attempts.incrementAndGet();
+            return ticketService.bookTicket(ticketId, 601L);
+        });
+        Ticket retry = idempotencyStore.execute(key, ticketId, 601L, () -> {
+            attempts.incrementAndGet();
+            return ticketService.bookTicket(ticketId, 601L);
+        });
+
+        assertEquals(1, attempts.get(), "A replay must not run the booking again");
+        assertEquals(first.getId(), retry.getId());
+        assertEquals(TicketStatus.SOLD, retry.getStatus());
+        assertEquals(601L, retry.getUserId());
+        assertTrue(Boolean.TRUE.equals(redisTemplate.hasKey("flashtix:idempotency:601:" + key)),
+                "Result is shared with other instances through Redis");
+
+        // Without the key the same retry is just a losing attempt
+        assertThrows(TicketBookingException.class, () -> ticketService.bookTicket(ticketId, 601L));
+        // Keys are scoped per user and per ticket
+        assertThrows(TicketBookingException.class,
+                () -> idempotencyStore.execute(key, ticketId + 1, 601L, () -> fail("must not run")));
+    }
+
+    @Test
+    public void testBookResponseAndItsReplayCarryTheWholeRow() throws Exception {
+        assumeTrue(bookingMode == BookingMode.LOCK, "Inventory mode answers before the row is written");
+        String seatNumber = ticketRepository.findById(ticketId).orElseThrow().getSeatNumber();
+        String key = UUID.randomUUID().toString();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/tickets/book").param("ticketId", ticketId.toString()).param("userId", "611")
+                            .header("Idempotency-Key", key))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.seatNumber").value(seatNumber))
+                    .andExpect(jsonPath("$.status").value("SOLD"))
+                    .andExpect(jsonPath("$.version").value(1))
+                    .andExpect(jsonPath("$.createdAt").isNotEmpty());
+        }
+    }
+
+    @Test
+    public void testConcurrentRetriesRunOnce() throws InterruptedException {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger attempts = new AtomicInteger();
+        List<Ticket> results = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        for (int i = 0; i < 20; i++) {
+            executor.submit(() -> {
+                latch.await();
+                results.add(idempotencyStore.execute(key, ticketId, 602L, () -> {
+                    attempts.incrementAndGet();
+                    return ticketService.bookTicket(ticketId, 602L);
+                }));
+                return null;
+            });
+        }
+        latch.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1, attempts.get());
+        assertEquals(20, results.size(), "Every retry gets the winning ticket, none a 409");
+        results.forEach(ticket -> assertEquals(ticketId, ticket.getId()));
+    }
+
+    @Test
+    public void testRetryWaitsForAnAttemptRunningOnAnotherInstance() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String redisKey = "flashtix:idempotency:604:" + key;
+        // Another instance reserved the key and is still booking
+        redisTemplate.opsForValue().set(redisKey, "PENDING:other-instance", Duration.ofSeconds(30));
+
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<Ticket> retry = CompletableFuture.supplyAsync(() ->
+                idempotencyStore.execute(key, ticketId, 604L, () -> {
+                    attempts.incrementAndGet();
+                    return ticketService.bookTicket(ticketId, 604L);
+                }));
+
+        Thread.sleep(300);
+        assertFalse(retry.isDone(), "The retry waits instead of racing the first attempt into a 409");
+
+        // The first attempt wins and stores its result
+        Ticket won = ticketService.bookTicket(ticketId, 604L);
+        redisTemplate.opsForValue().set(redisKey, objectMapper.writeValueAsString(won), Duration.ofSeconds(30));
+
+        Ticket replayed = retry.get(10, TimeUnit.SECONDS);
+        assertEquals(0, attempts.get(), "The retry never ran the booking itself");
+        assertEquals(ticketId, replayed.getId());
+        assertEquals(604L, replayed.getUserId());
+    }
+
+    @Test
+    public void testRetryGetsInProgressWhenTheOtherAttemptOutlastsTheWait() {
+        String key = UUID.randomUUID().toString();
+        redisTemplate.opsForValue().set("flashtix:idempotency:605:" + key, "PENDING:other-instance", Duration.ofSeconds(30));
+
+        Object target = AopTestUtils.getTargetObject(idempotencyStore);
+        Object defaultWait = ReflectionTestUtils.getField(target, "pendingWaitMs");
+        ReflectionTestUtils.setField(target, "pendingWaitMs", 200L);
+        try {
+            TicketBookingException inProgress = assertThrows(TicketBookingException.class,
+                    () -> idempotencyStore.execute(key, ticketId, 605L, () -> fail("must not run")));
+            assertTrue(inProgress.getMessage().contains("still in progress"));
+        } finally {
+            ReflectionTestUtils.setField(target, "pendingWaitMs", defaultWait);
+        }
+
+        // The other attempt failed and dropped its marker: the retry now runs for real
+        redisTemplate.delete("flashtix:idempotency:605:" + key);
+        Ticket booked = idempotencyStore.execute(key, ticketId, 605L, () -> ticketService.bookTicket(ticketId, 605L));
+        assertEquals(TicketStatus.SOLD, booked.getStatus());
+    }
+
+    @Test
+    public void testFailuresAreNotStored() {
+        String key = UUID.randomUUID().toString();
+        assertThrows(TicketBookingException.class, () -> idempotencyStore.execute(key, ticketId, 603L, () -> {
+            throw new TicketBookingException("Too many requests! Please try again.");
+        }));
+
+        Ticket booked = idempotencyStore.execute(key, ticketId, 603L, () -> ticketService.bookTicket(ticketId, 603L));
+        assertEquals(TicketStatus.SOLD, booked.getStatus());
+    }
+}
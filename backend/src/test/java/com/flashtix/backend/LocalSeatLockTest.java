@@ -0,0 +1,82 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.service.LocalSeatLock;
+import com.flashtix.backend.service.SeatLease;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalSeatLockTest {
+
+    @Test
+    public void testOnlyTheOwnerUnlocks() {
+        LocalSeatLock lock = new LocalSeatLock();
+
+        SeatLease held = lock.tryLock(1L, 42L, 7L);
+        assertNotNull(held);
+        assertNull(lock.tryLock(1L, 42L, 8L), "A held seat can't be taken");
+        SeatLease neighbour = lock.tryLock(1L, 43L, 8L);
+        assertNotNull(neighbour, "Neighbouring seats are independent");
+        assertTrue(neighbour.fencingToken() > held.fencingToken(), "Tokens grow with every lease");
+
+        lock.unlock(new SeatLease(1L, List.of(42L), 8L, neighbour.fencingToken()));
+        assertNull(lock.tryLock(1L, 42L, 9L), "Only the owner can release");
+        assertTrue(lock.renew(held));
+
+        lock.unlock(held);
+        assertFalse(lock.renew(held), "A released lease can't be renewed");
+        assertNotNull(lock.tryLock(1L, 42L, 9L));
+
+        // Ids in a far-away segment
+        assertNotNull(lock.tryLock(1L, 5_000_000L, 7L));
+    }
+
+    @Test
+    public void testGroupLockIsAllOrNothing() {
+        LocalSeatLock lock = new LocalSeatLock();
+        SeatLease single = lock.tryLock(1L, 3L, 100L);
+        assertNotNull(single);
+
+        assertNull(lock.tryLockAll(1L, List.of(1L, 2L, 3L), 200L));
+        SeatLease backedOut = lock.tryLock(1L, 1L, 300L);
+        assertNotNull(backedOut, "Seats taken before the conflict must be backed out");
+
+        lock.unlock(backedOut);
+        lock.unlock(single);
+        SeatLease group = lock.tryLockAll(1L, List.of(1L, 2L, 3L), 200L);
+        assertNotNull(group);
+        lock.unlock(group);
+        assertNotNull(lock.tryLock(1L, 2L, 400L));
+    }
+
+    @Test
+    public void testExactlyOneConcurrentWinner() throws InterruptedException {
+        LocalSeatLock lock = new LocalSeatLock();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+
+        for (long user = 1; user <= 1000; user++) {
+            long userId = user;
+            executor.submit(() -> {
+                latch.await();
+                if (lock.tryLock(1L, 77L, userId) != null) {
+                    winners.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        latch.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, winners.get());
+    }
+}
@@ -0,0 +1,210 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.entity.OutboxEvent;
+import com.flashtix.backend.entity.OutboxEventType;
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.repository.OutboxRepository;
+import com.flashtix.backend.repository.TicketRepository;
+import com.flashtix.backend.service.InMemoryOutboxSink;
+import com.flashtix.backend.service.OutboxRelay;
+import com.flashtix.backend.service.TicketService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OutboxTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void testSaleIsPublishedOnce() throws InterruptedException {
+        // Ids restart with every test run but Redis keeps its state, so drop stale inventory claims
+        redisTemplate.delete("flashtix:inventory:{1}");
+        Ticket t = new Ticket();
+        t.setEventId(1L);
+        t.setSeatNumber("OUTBOX-1");
+        t.setStatus(TicketStatus.AVAILABLE);
+        Long ticketId = ticketRepository.save(t).getId();
+
+        ticketService.bookTicket(ticketId, 701L);
+        assertThrows(TicketBookingException.class, () -> ticketService.bookTicket(ticketId, 702L));
+
+        // Inventory mode writes the sale (and its outbox row) behind the response
+        awaitOutboxRow(ticketId);
+        drain();
+
+        List<OutboxEvent> published = eventsFor(List.of(ticketId));
+        assertEquals(1, published.size(), "A rejected attempt must not produce an event");
+        assertEquals(OutboxEventType.TICKET_SOLD, published.get(0).getType());
+        assertEquals(701L, published.get(0).getUserId());
+        assertEquals(1L, published.get(0).getEventId());
+        assertTrue(outboxRepository.findAll().stream().noneMatch(e -> e.getTicketId().equals(ticketId)),
+                "Published events are removed from the outbox");
+    }
+
+    @Test
+    public void testParallelRelaysPublishEachEventOnce() throws InterruptedException {
+        // Synthetic ticket ids far above any real one, so only this test's rows are counted
+        long base = 1_000_000_000L + System.nanoTime() % 1_000_000_000L;
+        List<Long> ticketIds = new ArrayList<>();
+        List<OutboxEvent> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            OutboxEvent event = new OutboxEvent();
+            event.setType(OutboxEventType.TICKET_SOLD);
+            event.setTicketId(base + i);
+            event.setEventId(1L);
+            event.setUserId(800L);
+            event.setCreatedAt(LocalDateTime.now());
+            rows.add(event);
+            ticketIds.add(base + i);
+        }
+        outboxRepository.saveAll(rows);
+
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            workers.submit(this::drain);
+        }
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(30, TimeUnit.SECONDS));
+
+        Map<Long, Long> deliveries = eventsFor(ticketIds).stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getTicketId, Collectors.counting()));
+        assertEquals(1000, deliveries.size());
+        assertTrue(deliveries.values().stream().allMatch(count -> count == 1), "SKIP LOCKED keeps batches disjoint");
+    }
+
+    @Test
+    public void testSlowSinkPublishesOutsideTheTransactionUnderALease() throws Exception {
+        List<Long> ticketIds = insertSyntheticEvents(3);
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        AtomicBoolean inTransaction = new AtomicBoolean(true);
+        OutboxRelay slowRelay = new OutboxRelay(outboxRepository, events -> {
+            inTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            publishing.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, transactionTemplate, new SimpleMeterRegistry(), 10_000, 0, 200, 30_000);
+
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        Future<Integer> slowBatch = worker.submit(slowRelay::relayBatch);
+        try {
+            assertTrue(publishing.await(10, TimeUnit.SECONDS));
+            assertFalse(inTransaction.get(), "The sink runs with no transaction (or connection) held");
+
+            // The claimed rows stay out of other workers' batches while the slow publish runs
+            drain();
+            assertTrue(eventsFor(ticketIds).isEmpty(), "Leased rows are not published twice");
+        } finally {
+            finish.countDown();
+            worker.shutdown();
+        }
+        assertTrue(slowBatch.get(10, TimeUnit.SECONDS) >= 3);
+        assertTrue(outboxRepository.findAllById(idsOfTickets(ticketIds)).isEmpty(), "Deleted after publishing");
+    }
+
+    @Test
+    public void testFailedPublishIsRetriedWithoutWaitingForTheLease() {
+        List<Long> ticketIds = insertSyntheticEvents(3);
+        OutboxRelay failingRelay = new OutboxRelay(outboxRepository, events -> {
+            throw new IllegalStateException("broker down");
+        }, transactionTemplate, new SimpleMeterRegistry(), 10_000, 0, 200, 60_000);
+
+        assertThrows(IllegalStateException.class, failingRelay::relayBatch);
+        drain();
+
+        assertEquals(3, eventsFor(ticketIds).size(), "The batch was handed back, not left leased for a minute");
+    }
+
+    private List<Long> insertSyntheticEvents(int count) {
+        long base = 2_000_000_000L + System.nanoTime() % 1_000_000_000L;
+        List<Long> ticketIds = new ArrayList<>();
+        List<OutboxEvent> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            OutboxEvent event = new OutboxEvent();
+            event.setType(OutboxEventType.TICKET_SOLD);
+            event.setTicketId(base + i);
+            event.setEventId(1L);
+            event.setUserId(801L);
+            event.setCreatedAt(LocalDateTime.now());
+            rows.add(event);
+            ticketIds.add(base + i);
+        }
+        outboxRepository.saveAll(rows);
+        return ticketIds;
+    }
+
+    private List<Long> idsOfTickets(List<Long> ticketIds) {
+        Set<Long> wanted = new HashSet<>(ticketIds);
+        return outboxRepository.findAll().stream()
+                .filter(e -> wanted.contains(e.getTicketId()))
+                .map(OutboxEvent::getId)
+                .toList();
+    }
+
+    private void drain() {
+        while (relay.relayBatch() > 0) {
+            // keep going until the outbox is empty
+        }
+    }
+
+    private void awaitOutboxRow(Long ticketId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (outboxRepository.findAll().stream().noneMatch(e -> e.getTicketId().equals(ticketId))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    private List<OutboxEvent> eventsFor(List<Long> ticketIds) {
+        Set<Long> wanted = new HashSet<>(ticketIds);
+        return sink.events().stream().filter(e -> wanted.contains(e.getTicketId())).toList();
+    }
+}
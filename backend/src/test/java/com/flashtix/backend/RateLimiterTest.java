@@ -0,0 +1,40 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.service.RateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    @Test
+    public void testBurstThenSteadyRate() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(10, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(), "Burst permit " + (i + 1));
+        }
+        long wait = limiter.tryAcquire();
+        assertTrue(wait > 0, "Burst used up");
+        assertTrue(wait <= TimeUnit.MILLISECONDS.toNanos(100), "Next permit within one emission interval");
+
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(0, limiter.tryAcquire(), "One permit refilled at 10 per second");
+        assertTrue(limiter.tryAcquire() > 0, "Only one");
+    }
+
+    @Test
+    public void testRejectedAttemptsDoNotConsumePermits() {
+        RateLimiter limiter = new RateLimiter(1, 1);
+        assertEquals(0, limiter.tryAcquire());
+
+        long first = limiter.tryAcquire();
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+        }
+        // A client hammering while limited does not push its own next permit further out
+        assertTrue(limiter.tryAcquire() <= first);
+    }
+}
@@ -0,0 +1,76 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.service.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RedisCircuitBreakerTest {
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+    // slow-call 100 ms, 50% threshold, 4 calls minimum, 10 s window, 50 ms open, 2 probes
+    private final RedisCircuitBreaker breaker =
+            new RedisCircuitBreaker(new SimpleMeterRegistry(), 100, 0.5, 4, 10_000, 50, 2);
+
+    @Test
+    public void testOpensOnSlowCallsAndClosesAfterHealthyProbes() throws InterruptedException {
+        call(false, false);
+        call(true, false);
+        call(true, false);
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.state(), "Too few calls to judge yet");
+
+        call(false, true);
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.state(), "3 of 4 calls were slow or failed");
+        assertFalse(breaker.allowRequest(), "An open breaker keeps callers off Redis");
+
+        Thread.sleep(60);
+        assertTrue(breaker.allowRequest());
+        assertEquals(RedisCircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest(), "Only the configured probes go through");
+
+        breaker.record(System.nanoTime(), false);
+        breaker.record(System.nanoTime(), false);
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void testBadProbeReopens() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            call(true, false);
+        }
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.state());
+
+        Thread.sleep(60);
+        assertTrue(breaker.allowRequest());
+        breaker.record(System.nanoTime() - SLOW, false);
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void testProbesThatNeverReportDoNotStickHalfOpen() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            call(false, true);
+        }
+        Thread.sleep(60);
+        assertTrue(breaker.allowRequest());
+        assertTrue(breaker.allowRequest());
+
+        // Both probes were abandoned; after another open period a new round of probes is let through
+        Thread.sleep(60);
+        assertFalse(breaker.allowRequest());
+        assertTrue(breaker.allowRequest());
+        assertEquals(RedisCircuitBreaker.State.HALF_OPEN, breaker.state());
+    }
+
+    private void call(boolean slow, boolean failed) {
+        assertTrue(breaker.allowRequest());
+        breaker.record(slow ? System.nanoTime() - SLOW : System.nanoTime(), failed);
+    }
+}
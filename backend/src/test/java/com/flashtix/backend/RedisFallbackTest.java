@@ -0,0 +1,109 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.repository.TicketRepository;
+import com.flashtix.backend.service.BookingMode;
+import com.flashtix.backend.service.BookingModeHealthIndicator;
+import com.flashtix.backend.service.LockStrategy;
+import com.flashtix.backend.service.RedisCircuitBreaker;
+import com.flashtix.backend.service.RedisSeatLock;
+import com.flashtix.backend.service.TicketService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Own context: the breaker is tripped for good here and must not leak into other tests
+@SpringBootTest(properties = "flashtix.redis.breaker.open-ms=600000")
+@ActiveProfiles("test")
+public class RedisFallbackTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private RedisCircuitBreaker redisBreaker;
+
+    @Autowired
+    private BookingModeHealthIndicator healthIndicator;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${flashtix.booking.mode:lock}")
+    private BookingMode bookingMode;
+
+    @Value("${flashtix.lock.strategy:redis}")
+    private LockStrategy lockStrategy;
+
+    @Test
+    public void testOpenBreakerSellsThroughTheDatabaseOnly() throws InterruptedException {
+        assumeTrue(bookingMode == BookingMode.LOCK && lockStrategy == LockStrategy.REDIS,
+                "The database fallback replaces the Redis seat lock");
+        assertEquals("redis", healthIndicator.health().getDetails().get("seatLock"));
+
+        // Redis answering in a second, every time
+        while (redisBreaker.state() == RedisCircuitBreaker.State.CLOSED) {
+            assertTrue(redisBreaker.allowRequest());
+            redisBreaker.record(System.nanoTime() - TimeUnit.SECONDS.toNanos(1), false);
+        }
+        assertEquals("database-only", healthIndicator.health().getDetails().get("seatLock"));
+
+        Ticket t = new Ticket();
+        t.setEventId(1L);
+        t.setSeatNumber("FALLBACK-1");
+        t.setStatus(TicketStatus.AVAILABLE);
+        Long ticketId = ticketRepository.save(t).getId();
+        double fallbacks = registry.get("flashtix.lock.fallback").counter().count();
+
+        int attempts = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger rejectedCount = new AtomicInteger();
+        for (int i = 0; i < attempts; i++) {
+            long userId = 9100 + i;
+            executor.submit(() -> {
+                try {
+                    latch.await();
+                    ticketService.bookTicket(ticketId, userId);
+                    successCount.incrementAndGet();
+                } catch (TicketBookingException e) {
+                    rejectedCount.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        latch.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1, successCount.get(), "The conditional UPDATE alone still sells the seat once");
+        assertEquals(attempts - 1, rejectedCount.get());
+        assertEquals(TicketStatus.SOLD, ticketRepository.findById(ticketId).orElseThrow().getStatus());
+        assertTrue(registry.get("flashtix.lock.fallback").counter().count() > fallbacks);
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey(RedisSeatLock.lockKey(1L, ticketId))),
+                "No seat lock was taken");
+    }
+}
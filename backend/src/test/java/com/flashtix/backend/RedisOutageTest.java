@@ -0,0 +1,223 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.repository.TicketRepository;
+import com.flashtix.backend.service.BookingMode;
+import com.flashtix.backend.service.IdempotencyStore;
+import com.flashtix.backend.service.LockStrategy;
+import com.flashtix.backend.service.RedisCircuitBreaker;
+import com.flashtix.backend.service.TicketService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Own context: Redis is reached through a relay that the test turns silent, like a hung or partitioned
+// Redis: connections are accepted and never answered, so every call that still goes out waits out the timeout
+@SpringBootTest(properties = {
+        "spring.data.redis.timeout=300",
+        "flashtix.redis.breaker.minimum-calls=3",
+        "flashtix.redis.breaker.open-ms=600000"
+})
+@ActiveProfiles("test")
+public class RedisOutageTest {
+
+    private static final RedisRelay RELAY = new RedisRelay(6379);
+
+    @DynamicPropertySource
+    static void redis(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.port", RELAY::port);
+    }
+
+    // Lets the cached context shut down cleanly
+    @AfterAll
+    static void restoreRedis() {
+        RELAY.forward();
+    }
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private RedisCircuitBreaker redisBreaker;
+
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
+    @Value("${flashtix.booking.mode:lock}")
+    private BookingMode bookingMode;
+
+    @Value("${flashtix.lock.strategy:redis}")
+    private LockStrategy lockStrategy;
+
+    @Test
+    public void testDatabaseOnlyBookingsDoNotWaitOnAHungRedis() {
+        assumeTrue(bookingMode == BookingMode.LOCK && lockStrategy == LockStrategy.REDIS,
+                "The database fallback replaces the Redis seat lock");
+
+        List<Long> seats = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            seats.add(seat());
+        }
+
+        // Redis stops answering; the first few bookings time out on it and open the breaker
+        RELAY.silence();
+        int next = 0;
+        while (redisBreaker.state() != RedisCircuitBreaker.State.OPEN && next < 10) {
+            book(seats.get(next++));
+        }
+        assertEquals(RedisCircuitBreaker.State.OPEN, redisBreaker.state());
+        // Still selling seats, so the node stays in the load balancer
+        assertEquals(Status.UP, healthEndpoint.health().getStatus());
+
+        // From here on nothing on the booking path may touch Redis: not the lock, the seat map delta
+        // sent after commit, nor the idempotency lookup, reservation and result
+        List<Long> rest = seats.subList(next, next + 20);
+        long start = System.nanoTime();
+        for (Long ticketId : rest) {
+            assertEquals(TicketStatus.SOLD, book(ticketId).getStatus());
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMs < 3_000, "20 bookings took " + elapsedMs + " ms; each Redis call would cost 300 ms");
+        rest.forEach(ticketId ->
+                assertEquals(TicketStatus.SOLD, ticketRepository.findById(ticketId).orElseThrow().getStatus()));
+
+        // A retry is still answered from this instance's own tier
+        String key = "outage-" + rest.get(0);
+        AtomicInteger attempts = new AtomicInteger();
+        Ticket replay = idempotencyStore.execute(key, rest.get(0), 9500L, () -> {
+            attempts.incrementAndGet();
+            return ticketService.bookTicket(rest.get(0), 9500L);
+        });
+        assertEquals(0, attempts.get());
+        assertEquals(rest.get(0), replay.getId());
+    }
+
+    private Ticket book(Long ticketId) {
+        try {
+            return idempotencyStore.execute("outage-" + ticketId, ticketId, 9500L,
+                    () -> ticketService.bookTicket(ticketId, 9500L));
+        } catch (TicketBookingException e) {
+            // Only while the breaker is still closed: the lock call failed and the fallback was full
+            return null;
+        }
+    }
+
+    private Long seat() {
+        Ticket t = new Ticket();
+        t.setEventId(1L);
+        t.setSeatNumber("OUTAGE-" + UUID.randomUUID());
+        t.setStatus(TicketStatus.AVAILABLE);
+        return ticketRepository.save(t).getId();
+    }
+
+    // TCP relay to the test Redis; once silenced it drops every connection and leaves new ones unanswered
+    private static final class RedisRelay {
+
+        private final int upstreamPort;
+        private final ServerSocket server;
+        private final List<Socket> open = new CopyOnWriteArrayList<>();
+        private volatile boolean silent;
+
+        RedisRelay(int upstreamPort) {
+            this.upstreamPort = upstreamPort;
+            try {
+                this.server = new ServerSocket(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            daemon("redis-relay", this::acceptLoop);
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        void silence() {
+            silent = true;
+            closeAll();
+        }
+
+        void forward() {
+            silent = false;
+            closeAll();
+        }
+
+        private void acceptLoop() {
+            while (true) {
+                try {
+                    Socket client = server.accept();
+                    open.add(client);
+                    if (!silent) {
+                        Socket upstream = new Socket("localhost", upstreamPort);
+                        open.add(upstream);
+                        daemon("redis-relay-out", () -> pipe(client, upstream));
+                        daemon("redis-relay-in", () -> pipe(upstream, client));
+                    }
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void closeAll() {
+            for (Socket socket : open) {
+                closeQuietly(socket);
+            }
+            open.clear();
+        }
+
+        private static void pipe(Socket from, Socket to) {
+            try {
+                from.getInputStream().transferTo(to.getOutputStream());
+            } catch (IOException e) {
+                // either side closed
+            } finally {
+                closeQuietly(from);
+                closeQuietly(to);
+            }
+        }
+
+        private static void closeQuietly(Socket socket) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+
+        private static void daemon(String name, Runnable task) {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.repository.TicketRepository;
+import com.flashtix.backend.service.SeatDeltaBroadcaster;
+import com.flashtix.backend.service.TicketService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class SeatDeltaStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private SeatDeltaBroadcaster seatDeltaBroadcaster;
+
+    @Test
+    public void testSubscriberReceivesCoalescedDeltas() throws Exception {
+        ticketRepository.deleteAll();
+        // Ids restart with every test run but Redis keeps its state, so drop stale inventory claims
+        redisTemplate.delete("flashtix:inventory:{1}");
+        Long heldThenSold = saveSeat("STREAM-1");
+        Long sold = saveSeat("STREAM-2");
+
+        BlockingQueue<String> dataLines = new LinkedBlockingQueue<>();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tickets/stream?eventId=1")).build();
+        CompletableFuture<HttpResponse<Stream<String>>> response = HttpClient.newHttpClient()
+                .sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+        response.thenAccept(r -> {
+            Thread reader = new Thread(() -> r.body()
+                    .filter(line -> line.startsWith("data:"))
+                    .forEach(dataLines::add));
+            reader.setDaemon(true);
+            reader.start();
+        });
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("flashtix.stream.subscribers").gauge().value() < 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        ticketService.holdTicket(heldThenSold, 1L);
+        ticketService.confirmHold(heldThenSold, 1L);
+        ticketService.bookTicket(sold, 2L);
+
+        StringBuilder received = new StringBuilder();
+        while (!(received.toString().contains("[" + heldThenSold + ",\"SOLD\"]")
+                && received.toString().contains("[" + sold + ",\"SOLD\"]"))) {
+            String line = dataLines.poll(5, TimeUnit.SECONDS);
+            assertNotNull(line, "Expected both sales on the stream, got: " + received);
+            received.append(line);
+        }
+        assertEquals(200, response.get().statusCode());
+        response.get().body().close();
+    }
+
+    @Test
+    public void testSlowSubscriberIsDroppedWithoutStallingOthers() throws Exception {
+        long eventId = 7001L;
+        double base = meterRegistry.get("flashtix.stream.subscribers").gauge().value();
+
+        // A client that never reads: once its TCP window is full every write to it blocks
+        Socket slow = new Socket();
+        slow.setReceiveBufferSize(1024);
+        slow.connect(new InetSocketAddress("localhost", port));
+        slow.getOutputStream().write(("GET /api/tickets/stream?eventId=" + eventId + " HTTP/1.1\r\n" +
+                "Host: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+
+        AtomicLong healthyFrames = new AtomicLong();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tickets/stream?eventId=" + eventId)).build();
+        CompletableFuture<HttpResponse<Stream<String>>> response = HttpClient.newHttpClient()
+                .sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+        response.thenAccept(r -> {
+            Thread reader = new Thread(() -> r.body()
+                    .filter(line -> line.startsWith("data:"))
+                    .forEach(line -> healthyFrames.incrementAndGet()));
+            reader.setDaemon(true);
+            reader.start();
+        });
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("flashtix.stream.subscribers").gauge().value() < base + 2
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        // Big frames fill the slow client's socket quickly; the healthy one must keep getting every frame meanwhile
+        double lagging = meterRegistry.get("flashtix.stream.lagging").counter().count();
+        long seat = 0;
+        deadline = System.currentTimeMillis() + 60_000;
+        while (meterRegistry.get("flashtix.stream.lagging").counter().count() == lagging
+                && System.currentTimeMillis() < deadline) {
+            for (int i = 0; i < 10_000; i++) {
+                seatDeltaBroadcaster.enqueue(eventId, ++seat, TicketStatus.SOLD);
+            }
+            Thread.sleep(50);
+        }
+        assertTrue(meterRegistry.get("flashtix.stream.lagging").counter().count() > lagging,
+                "The client that stopped reading is disconnected");
+
+        long framesSoFar = healthyFrames.get();
+        assertTrue(framesSoFar > 0, "The healthy subscriber was served while the slow one was stuck");
+        seatDeltaBroadcaster.enqueue(eventId, ++seat, TicketStatus.SOLD);
+        deadline = System.currentTimeMillis() + 5000;
+        while (healthyFrames.get() == framesSoFar && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(healthyFrames.get() > framesSoFar, "The healthy subscriber still gets frames");
+
+        slow.close();
+        response.get().body().close();
+    }
+
+    private Long saveSeat(String seatNumber) {
+        Ticket t = new Ticket();
+        t.setEventId(1L);
+        t.setSeatNumber(seatNumber);
+        t.setStatus(TicketStatus.AVAILABLE);
+        return ticketRepository.save(t).getId();
+    }
+}
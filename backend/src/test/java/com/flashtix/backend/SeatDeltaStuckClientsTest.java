@@ -0,0 +1,109 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.service.SeatDeltaBroadcaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own context: two writer threads, so a handful of clients that stop reading would take the whole pool
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "flashtix.stream.writer-threads=2",
+        "flashtix.stream.send-timeout-ms=500"
+})
+@ActiveProfiles("test")
+public class SeatDeltaStuckClientsTest {
+
+    private static final int STUCK_CLIENTS = 4;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SeatDeltaBroadcaster seatDeltaBroadcaster;
+
+    @Test
+    public void testMoreStuckClientsThanWritersDoNotStarveHealthyOnes() throws Exception {
+        long eventId = 7002L;
+        double base = meterRegistry.get("flashtix.stream.subscribers").gauge().value();
+
+        // Clients that never read: once their TCP window is full every write to them blocks
+        List<Socket> stuck = new ArrayList<>();
+        for (int i = 0; i < STUCK_CLIENTS; i++) {
+            Socket socket = new Socket();
+            socket.setReceiveBufferSize(1024);
+            socket.connect(new InetSocketAddress("localhost", port));
+            socket.getOutputStream().write(("GET /api/tickets/stream?eventId=" + eventId + " HTTP/1.1\r\n" +
+                    "Host: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            stuck.add(socket);
+        }
+
+        AtomicLong healthyFrames = new AtomicLong();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tickets/stream?eventId=" + eventId)).build();
+        CompletableFuture<HttpResponse<Stream<String>>> response = HttpClient.newHttpClient()
+                .sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+        response.thenAccept(r -> {
+            Thread reader = new Thread(() -> r.body()
+                    .filter(line -> line.startsWith("data:"))
+                    .forEach(line -> healthyFrames.incrementAndGet()));
+            reader.setDaemon(true);
+            reader.start();
+        });
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("flashtix.stream.subscribers").gauge().value() < base + STUCK_CLIENTS + 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        // Big frames fill the stuck clients' sockets; each is given up once a write to it blocks too long
+        double lagging = meterRegistry.get("flashtix.stream.lagging").counter().count();
+        long seat = 0;
+        deadline = System.currentTimeMillis() + 60_000;
+        while (meterRegistry.get("flashtix.stream.lagging").counter().count() < lagging + STUCK_CLIENTS
+                && System.currentTimeMillis() < deadline) {
+            for (int i = 0; i < 10_000; i++) {
+                seatDeltaBroadcaster.enqueue(eventId, ++seat, TicketStatus.SOLD);
+            }
+            Thread.sleep(50);
+        }
+        assertEquals(lagging + STUCK_CLIENTS, meterRegistry.get("flashtix.stream.lagging").counter().count(),
+                "Every client that stopped reading is disconnected, and only those");
+
+        // The stuck writes may still be blocked, yet the healthy stream is served at once
+        long framesSoFar = healthyFrames.get();
+        seatDeltaBroadcaster.enqueue(eventId, ++seat, TicketStatus.SOLD);
+        deadline = System.currentTimeMillis() + 2000;
+        while (healthyFrames.get() == framesSoFar && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(healthyFrames.get() > framesSoFar, "The healthy subscriber still gets frames");
+        assertEquals(base + 1, meterRegistry.get("flashtix.stream.subscribers").gauge().value());
+
+        for (Socket socket : stuck) {
+            socket.close();
+        }
+        response.get().body().close();
+    }
+}
@@ -0,0 +1,110 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.repository.TicketRepository;
+import com.flashtix.backend.service.TicketService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "flashtix.hold.tick-ms=100")
+public class SeatHoldTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    private Long ticketId;
+
+    @BeforeEach
+    public void setup() {
+        // One bulk DELETE: deleteAll() checks each row's version, and in inventory mode an earlier
+        // test's sale can still be landing from the write-behind journal
+        ticketRepository.deleteAllInBatch();
+        Ticket t = new Ticket();
+        t.setEventId(1L);
+        t.setSeatNumber("HOLD-1");
+        t.setStatus(TicketStatus.AVAILABLE);
+        ticketId = ticketRepository.save(t).getId();
+    }
+
+    @Test
+    public void testHoldBlocksOthersThenConfirms() {
+        Ticket held = ticketService.holdTicket(ticketId, 11L);
+        assertEquals(TicketStatus.HELD, held.getStatus());
+        assertNotNull(held.getHoldExpiresAt());
+
+        assertThrows(TicketBookingException.class, () -> ticketService.holdTicket(ticketId, 12L));
+        assertThrows(TicketBookingException.class, () -> ticketService.bookTicket(ticketId, 12L));
+        assertThrows(TicketBookingException.class, () -> ticketService.confirmHold(ticketId, 12L),
+                "Only the holder may confirm");
+
+        Ticket sold = ticketService.confirmHold(ticketId, 11L);
+        assertEquals(TicketStatus.SOLD, sold.getStatus());
+        assertEquals(11L, sold.getUserId());
+        assertNull(sold.getHoldExpiresAt());
+    }
+
+    @Test
+    public void testUnconfirmedHoldExpires() throws InterruptedException {
+        Object target = AopTestUtils.getTargetObject(ticketService);
+        Object defaultTtl = ReflectionTestUtils.getField(target, "holdTtlSeconds");
+        ReflectionTestUtils.setField(target, "holdTtlSeconds", 1L);
+        try {
+            ticketService.holdTicket(ticketId, 21L);
+        } finally {
+            ReflectionTestUtils.setField(target, "holdTtlSeconds", defaultTtl);
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (ticketRepository.findById(ticketId).orElseThrow().getStatus() != TicketStatus.AVAILABLE
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        Ticket expired = ticketRepository.findById(ticketId).orElseThrow();
+        assertEquals(TicketStatus.AVAILABLE, expired.getStatus(), "Hold should lapse after its TTL");
+        assertNull(expired.getUserId());
+        assertThrows(TicketBookingException.class, () -> ticketService.confirmHold(ticketId, 21L));
+
+        // The seat is bookable again
+        assertEquals(TicketStatus.SOLD, ticketService.bookTicket(ticketId, 22L).getStatus());
+    }
+
+    @Test
+    public void testReleaseReturnsSeat() {
+        ticketService.holdTicket(ticketId, 31L);
+        assertThrows(TicketBookingException.class, () -> ticketService.releaseHold(ticketId, 32L));
+
+        Ticket released = ticketService.releaseHold(ticketId, 31L);
+        assertEquals(TicketStatus.AVAILABLE, released.getStatus());
+        assertEquals(TicketStatus.HELD, ticketService.holdTicket(ticketId, 32L).getStatus());
+    }
+
+    @Test
+    public void testBookingAHeldSeatDoesNotMarkItSold() {
+        ticketService.holdTicket(ticketId, 41L);
+        TicketBookingException onHold = assertThrows(TicketBookingException.class,
+                () -> ticketService.bookTicket(ticketId, 42L));
+        assertEquals("Seat is on hold", onHold.getMessage());
+
+        // Once the hold is gone the seat must not be refused from the sold-seat index
+        ticketService.releaseHold(ticketId, 41L);
+        Ticket sold = ticketService.bookTicket(ticketId, 42L);
+        assertEquals(TicketStatus.SOLD, sold.getStatus());
+        assertEquals(42L, sold.getUserId());
+    }
+}
@@ -0,0 +1,92 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.dto.SeatAvailability;
+import com.flashtix.backend.dto.SeatImportResult;
+import com.flashtix.backend.dto.SeatView;
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.repository.EventRepository;
+import com.flashtix.backend.repository.TicketRepository;
+import com.flashtix.backend.service.BookingMode;
+import com.flashtix.backend.service.EventService;
+import com.flashtix.backend.service.SeatMapCache;
+import com.flashtix.backend.service.TicketService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SeatImportTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private SeatMapCache seatMapCache;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${flashtix.booking.mode:lock}")
+    private BookingMode bookingMode;
+
+    @Test
+    public void testManifestIsLoadedInChunks() {
+        // More than two chunks of the default 5000, plus the CSV quirks a real export has
+        StringBuilder csv = new StringBuilder("seat_number,section,row\n");
+        csv.append("\"A-1, aisle\",A,1\n\n");
+        for (int i = 2; i <= 12_001; i++) {
+            csv.append("A-").append(i).append(",A,").append(i / 20).append('\n');
+        }
+
+        SeatImportResult result = eventService.importEvent("Stadium", "North Stand", null, new StringReader(csv.toString()));
+        Long eventId = result.event().getId();
+
+        assertEquals(12_001, result.seats());
+        assertEquals(new SeatAvailability(12_001, 0, 0, 12_001), seatMapCache.getAvailability(eventId));
+        List<SeatView> seats = List.copyOf(seatMapCache.getSeatMap(eventId));
+        assertEquals("A-1, aisle", seats.get(0).seatNumber());
+        if (bookingMode == BookingMode.INVENTORY) {
+            assertEquals(12_001L, redisTemplate.opsForHash().size("flashtix:inventory:{" + eventId + "}"),
+                    "Redis inventory is pre-warmed during the import");
+        }
+
+        // Imported seats are ordinary tickets
+        Ticket booked = ticketService.bookTicket(seats.get(12_000).id(), 77L);
+        assertEquals(TicketStatus.SOLD, booked.getStatus());
+        assertEquals(eventId, booked.getEventId());
+    }
+
+    @Test
+    public void testBadManifestLeavesNothingBehind() {
+        long events = eventRepository.count();
+        long tickets = ticketRepository.count();
+
+        assertThrows(TicketBookingException.class,
+                () -> eventService.importEvent("Dupes", null, null, new StringReader("B-1\nB-2\nB-1\n")));
+        assertThrows(TicketBookingException.class,
+                () -> eventService.importEvent("Broken", null, null, new StringReader("C-1\n\"C-2\n")));
+
+        assertEquals(events, eventRepository.count());
+        assertEquals(tickets, ticketRepository.count());
+    }
+}
@@ -0,0 +1,54 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.service.SeatLease;
+import com.flashtix.backend.service.SeatLeaseWatchdog;
+import com.flashtix.backend.service.SeatLockStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SeatLeaseWatchdogTest {
+
+    @Autowired
+    private SeatLockStrategy seatLock;
+
+    @Autowired
+    private SeatLeaseWatchdog leaseWatchdog;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${flashtix.lock.ttl-ms:2000}")
+    private long ttlMillis;
+
+    @Test
+    public void testWatchedLeaseOutlivesItsTtl() throws InterruptedException {
+        double renewals = registry.get("flashtix.lock.lease.renewals").counter().count();
+
+        SeatLease lease = seatLock.tryLockAll(9L, List.of(901L, 902L), 90L);
+        assertNotNull(lease);
+        leaseWatchdog.watch(lease);
+        try {
+            Thread.sleep(ttlMillis * 2);
+            assertNull(seatLock.tryLock(9L, 902L, 91L), "A watched lease is still held after its TTL");
+            assertTrue(registry.get("flashtix.lock.lease.renewals").counter().count() > renewals);
+        } finally {
+            leaseWatchdog.unwatch(lease);
+            seatLock.unlock(lease);
+        }
+
+        SeatLease next = seatLock.tryLock(9L, 902L, 91L);
+        assertNotNull(next);
+        assertTrue(next.fencingToken() > lease.fencingToken(), "The next holder gets a newer token");
+        seatLock.unlock(next);
+    }
+}
@@ -0,0 +1,97 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.dto.SeatAvailability;
+import com.flashtix.backend.dto.SeatView;
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.repository.TicketRepository;
+import com.flashtix.backend.service.SeatMapCache;
+import com.flashtix.backend.service.TicketService;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SeatMapCacheTest {
+
+    @Autowired
+    private SeatMapCache seatMapCache;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private final List<Long> ticketIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        ticketRepository.deleteAll();
+        // Ids restart with every test run but Redis keeps its state, so drop stale inventory claims
+        redisTemplate.delete("flashtix:inventory:{1}");
+        ticketIds.clear();
+        for (int i = 1; i <= 3; i++) {
+            Ticket t = new Ticket();
+            t.setEventId(1L);
+            t.setSeatNumber("MAP-" + i);
+            t.setStatus(TicketStatus.AVAILABLE);
+            ticketIds.add(ticketRepository.save(t).getId());
+        }
+        seatMapCache.reset(1L);
+    }
+
+    @Test
+    public void testBookingIsVisibleWithoutReloading() {
+        assertEquals(new SeatAvailability(3, 0, 0, 3), seatMapCache.getAvailability(1L));
+        double databaseLoads = loads("database");
+
+        ticketService.bookTicket(ticketIds.get(0), 7L);
+        ticketService.holdTicket(ticketIds.get(1), 8L);
+
+        assertEquals(new SeatAvailability(1, 1, 1, 3), seatMapCache.getAvailability(1L));
+        List<SeatView> seats = List.copyOf(seatMapCache.getSeatMap(1L));
+        assertEquals(List.of(TicketStatus.SOLD, TicketStatus.HELD, TicketStatus.AVAILABLE),
+                seats.stream().map(SeatView::status).toList());
+        assertEquals("MAP-1", seats.get(0).seatNumber());
+        assertEquals(databaseLoads, loads("database"), "Seat changes are applied as deltas, not by re-querying");
+    }
+
+    @Test
+    public void testLocalMissIsServedFromRedis() {
+        seatMapCache.getAvailability(1L);
+        ticketService.bookTicket(ticketIds.get(2), 9L);
+
+        // Simulate another instance (or an expired local entry): only Redis should be read
+        Cache<?, ?> localCache = (Cache<?, ?>) ReflectionTestUtils.getField(seatMapCache, "localCache");
+        localCache.invalidateAll();
+        double databaseLoads = loads("database");
+        double redisLoads = loads("redis");
+
+        assertEquals(new SeatAvailability(2, 0, 1, 3), seatMapCache.getAvailability(1L));
+        assertEquals(databaseLoads, loads("database"));
+        assertEquals(redisLoads + 1, loads("redis"));
+    }
+
+    private double loads(String tier) {
+        return meterRegistry.get("flashtix.seatmap.loads").tag("tier", tier).counter().count();
+    }
+}
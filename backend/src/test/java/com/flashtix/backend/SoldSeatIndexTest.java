@@ -0,0 +1,52 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.service.SoldSeatIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SoldSeatIndexTest {
+
+    @Test
+    public void testMarkAndLookup() {
+        SoldSeatIndex index = new SoldSeatIndex();
+
+        assertFalse(index.isSold(42));
+        index.markSold(42);
+        assertTrue(index.isSold(42));
+        assertFalse(index.isSold(41));
+        assertFalse(index.isSold(43));
+
+        // Ids in a far-away segment and outside the indexed range
+        index.markSold(5_000_000L);
+        assertTrue(index.isSold(5_000_000L));
+        index.markSold(Long.MAX_VALUE);
+        assertFalse(index.isSold(Long.MAX_VALUE), "Out-of-range ids must fall back to the slow path");
+    }
+
+    @Test
+    public void testConcurrentMarksAreNotLost() throws InterruptedException {
+        SoldSeatIndex index = new SoldSeatIndex();
+        int seats = 100_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int offset = t;
+            executor.submit(() -> {
+                for (int id = offset; id < seats; id += 8) {
+                    index.markSold(id);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (int id = 0; id < seats; id++) {
+            assertTrue(index.isSold(id), "Seat " + id + " should be marked sold");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.flashtix.backend;
+
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.repository.OutboxRepository;
+import com.flashtix.backend.repository.TicketRepository;
+import com.flashtix.backend.service.RedisSeatLock;
+import com.flashtix.backend.service.SoldSeatIndex;
+import com.flashtix.backend.service.StartupWarmup;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class StartupWarmupTest {
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private StartupWarmup startupWarmup;
+
+    @Autowired
+    private SoldSeatIndex soldSeatIndex;
+
+    @Test
+    public void testWarmupLeavesNoTraceAndLoadsScripts() {
+        assertEquals(1, registry.get("flashtix.warmup.duration").timer().count(), "Warm-up ran once on startup");
+
+        // Dummy seats and their sales were rolled back
+        assertTrue(ticketRepository.findByEventId(0L).isEmpty());
+        assertTrue(outboxRepository.findAll().stream().noneMatch(event -> event.getEventId() == 0L));
+
+        List<Boolean> loaded = redisTemplate.execute(connection -> connection.scriptingCommands()
+                .scriptExists(RedisSeatLock.LOCK_SCRIPT.getSha1(), RedisSeatLock.UNLOCK_SCRIPT.getSha1()), true);
+        assertEquals(List.of(true, true), loaded);
+
+        // Run it again, measured: the dummy bookings stay out of the metrics and the sold seat index
+        long bookings = bookingSamples("flashtix.booking.duration");
+        long phases = bookingSamples("flashtix.booking.phase");
+        double conflicts = registry.get("flashtix.journal.conflicts").counter().count();
+
+        // Ids are never reused, so the warm-up's dummy seats are the ids between these two
+        long before = seat();
+        startupWarmup.run(null);
+        long after = seat();
+
+        assertTrue(after - before > 20, "The warm-up booked its dummy seats");
+        for (long ticketId = before + 1; ticketId < after; ticketId++) {
+            assertFalse(soldSeatIndex.isSold(ticketId), "Rolled-back dummy sale of seat " + ticketId);
+        }
+        assertEquals(bookings, bookingSamples("flashtix.booking.duration"));
+        assertEquals(phases, bookingSamples("flashtix.booking.phase"));
+        assertEquals(conflicts, registry.get("flashtix.journal.conflicts").counter().count());
+    }
+
+    private long bookingSamples(String timer) {
+        return registry.get(timer).timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private long seat() {
+        Ticket t = new Ticket();
+        t.setEventId(1L);
+        t.setSeatNumber("WARM-" + UUID.randomUUID());
+        t.setStatus(TicketStatus.AVAILABLE);
+        return ticketRepository.save(t).getId();
+    }
+}
@@ -2,8 +2,13 @@ package com.flashtix.backend;
 
 import com.flashtix.backend.entity.Ticket;
 import com.flashtix.backend.entity.TicketStatus;
+import com.flashtix.backend.exception.TicketBookingException;
 import com.flashtix.backend.repository.TicketRepository;
+import com.flashtix.backend.service.SeatLease;
+import com.flashtix.backend.service.SeatLockStrategy;
+import com.flashtix.backend.service.SoldSeatIndex;
 import com.flashtix.backend.service.TicketService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -11,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -32,6 +38,18 @@ public class TicketConcurrencyTest {
     @Autowired
     private TicketRepository ticketRepository;
 
+    @Autowired
+    private SeatLockStrategy seatLock;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private SoldSeatIndex soldSeatIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @BeforeEach
     public void setup() {
         ticketRepository.deleteAll();
@@ -41,6 +59,7 @@ public class TicketConcurrencyTest {
 public void testConcurrency() throws InterruptedException {
     // 1. Setup
     Ticket t = new Ticket();
+    t.setEventId(1L);
     t.setSeatNumber("VIP-TEST-1");
     t.setStatus(TicketStatus.AVAILABLE);
     ticketRepository.save(t);
@@ -100,4 +119,102 @@ public void testConcurrency() throws InterruptedException {
         updatedTicket.getUserId(), updatedTicket.getVersion());
 }
 
+    @Test
+    public void testConditionalUpdateSellsOnceWithoutSeatLock() throws InterruptedException {
+        // Straight to the database, as if the seat lock had expired: the UPDATE alone must pick one winner
+        Ticket t = new Ticket();
+        t.setEventId(1L);
+        t.setSeatNumber("VIP-TEST-2");
+        t.setStatus(TicketStatus.AVAILABLE);
+        Long ticketId = ticketRepository.save(t).getId();
+
+        int attempts = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger soldOutCount = new AtomicInteger();
+
+        for (int i = 0; i < attempts; i++) {
+            long userId = 7000 + i;
+            long fencingToken = i + 1;
+            executor.submit(() -> {
+                try {
+                    latch.await();
+                    ticketService.processBookingInDatabase(ticketId, userId, fencingToken);
+                    successCount.incrementAndGet();
+                } catch (TicketBookingException e) {
+                    if ("Sold Out!".equals(e.getMessage())) {
+                        soldOutCount.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        latch.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1, successCount.get(), "Exactly one UPDATE may match the available seat");
+        assertEquals(attempts - 1, soldOutCount.get(), "Losers are told the seat is sold, not asked to retry");
+        Ticket sold = ticketRepository.findById(ticketId).orElseThrow();
+        assertEquals(TicketStatus.SOLD, sold.getStatus());
+        assertEquals(1L, sold.getVersion());
+    }
+
+    @Test
+    public void testStaleFencingTokenIsRejectedAtTheDatabase() {
+        Ticket t = new Ticket();
+        t.setEventId(1L);
+        t.setSeatNumber("VIP-TEST-3");
+        t.setStatus(TicketStatus.AVAILABLE);
+        Long ticketId = ticketRepository.save(t).getId();
+
+        // A booking takes a lease and then stalls past its TTL, so the seat lock passes on without it
+        SeatLease stale = seatLock.tryLock(1L, ticketId, 8001L);
+        seatLock.unlock(stale);
+        // Meanwhile another buyer holds the seat and lets it go again, each under a newer lease
+        ticketService.holdTicket(ticketId, 8002L);
+        ticketService.releaseHold(ticketId, 8002L);
+        assertEquals(TicketStatus.AVAILABLE, ticketRepository.findById(ticketId).orElseThrow().getStatus());
+
+        double fenced = registry.get("flashtix.lock.fenced").counter().count();
+        TicketBookingException refused = assertThrows(TicketBookingException.class,
+                () -> ticketService.processBookingInDatabase(ticketId, 8001L, stale.fencingToken()));
+        assertEquals(TicketBookingException.Reason.CONTENTION, refused.getReason());
+        assertEquals(fenced + 1, registry.get("flashtix.lock.fenced").counter().count());
+        assertEquals(TicketStatus.AVAILABLE, ticketRepository.findById(ticketId).orElseThrow().getStatus());
+
+        SeatLease current = seatLock.tryLock(1L, ticketId, 8003L);
+        try {
+            ticketService.processBookingInDatabase(ticketId, 8003L, current.fencingToken());
+        } finally {
+            seatLock.unlock(current);
+        }
+        Ticket sold = ticketRepository.findById(ticketId).orElseThrow();
+        assertEquals(TicketStatus.SOLD, sold.getStatus());
+        assertEquals(8003L, sold.getUserId());
+        assertEquals(current.fencingToken(), sold.getFencingToken());
+    }
+
+    @Test
+    public void testRolledBackSaleIsNotRememberedAsSold() {
+        Ticket t = new Ticket();
+        t.setEventId(1L);
+        t.setSeatNumber("ROLLBACK-1");
+        t.setStatus(TicketStatus.AVAILABLE);
+        Long ticketId = ticketRepository.save(t).getId();
+
+        // The sale succeeds, then the surrounding transaction is rolled back (a later failure, or the warm-up)
+        transactionTemplate.executeWithoutResult(status -> {
+            ticketService.processBookingInDatabase(ticketId, 4001L, SeatLease.clockToken());
+            status.setRollbackOnly();
+        });
+        assertFalse(soldSeatIndex.isSold(ticketId), "The fast path must not reject a seat that is still AVAILABLE");
+        assertEquals(TicketStatus.AVAILABLE, ticketRepository.findById(ticketId).orElseThrow().getStatus());
+
+        transactionTemplate.executeWithoutResult(status ->
+                ticketService.processBookingInDatabase(ticketId, 4002L, SeatLease.clockToken()));
+        assertTrue(soldSeatIndex.isSold(ticketId), "Learned once the sale commits");
+    }
 }
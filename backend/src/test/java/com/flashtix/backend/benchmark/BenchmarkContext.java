@@ -0,0 +1,54 @@
+package com.flashtix.backend.benchmark;
+
+import com.flashtix.backend.BackendApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application for a benchmark fork: H2 in place of Postgres (the "test" profile)
+ * and the local Redis from docker-compose. No web server; benchmarks call the services directly.
+ */
+final class BenchmarkContext {
+
+    static final long EVENT_ID = 1L;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "logging.level.root=WARN",
+                "logging.level.com.flashtix.backend=WARN"));
+        properties.addAll(List.of(extraProperties));
+
+        // Passed as command-line arguments: default properties would lose to application.properties
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    // Inserts seats straight through JDBC and returns their ids in insertion order
+    static long[] seedSeats(JdbcTemplate jdbc, int seats) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(seats);
+        for (int i = 0; i < seats; i++) {
+            rows.add(new Object[]{EVENT_ID, "BENCH-" + i, now});
+        }
+        jdbc.batchUpdate("INSERT INTO tickets (event_id, seat_number, status, version, created_at) VALUES (?, ?, 'AVAILABLE', 0, ?)", rows);
+        return jdbc.queryForList("SELECT id FROM tickets ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    static void resetSeats(JdbcTemplate jdbc) {
+        jdbc.update("UPDATE tickets SET status = 'AVAILABLE', user_id = NULL, hold_expires_at = NULL, fencing_token = NULL");
+    }
+}
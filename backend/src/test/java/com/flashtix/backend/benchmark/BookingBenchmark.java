@@ -0,0 +1,106 @@
+package com.flashtix.backend.benchmark;
+
+import com.flashtix.backend.entity.Ticket;
+import com.flashtix.backend.exception.TicketBookingException;
+import com.flashtix.backend.service.SoldSeatIndex;
+import com.flashtix.backend.service.TicketService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booking hot path under the three contention profiles.
+ * <p>
+ * {@code bookTicket} is the full path (fast path, coalescing, seat lock, DB); {@code processBookingInDatabase}
+ * isolates the persistence step. Each invocation is one attempt: wins and 409s (including lost optimistic-lock
+ * races) both count, which is what an on-sale looks like. Seats are reset every iteration so the sold/available
+ * mix is the same for each one.
+ * <p>
+ * Throughput gives ops/s, SampleTime gives p50/p99/p99.9; run with {@code -prof gc} for allocation rate.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class BookingBenchmark {
+
+    @Param({"HOT", "UNIFORM", "ZIPF"})
+    public SeatDistribution distribution;
+
+    @Param({"10000"})
+    public int seats;
+
+    @Param({"redis", "local"})
+    public String lockStrategy;
+
+    private ConfigurableApplicationContext context;
+    private TicketService ticketService;
+    private SoldSeatIndex soldSeatIndex;
+    private JdbcTemplate jdbc;
+    private long[] seatIds;
+    private SeatDistribution.Sampler sampler;
+    private final AtomicLong userIds = new AtomicLong(1);
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkContext.start("flashtix.lock.strategy=" + lockStrategy);
+        ticketService = context.getBean(TicketService.class);
+        soldSeatIndex = context.getBean(SoldSeatIndex.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+        seatIds = BenchmarkContext.seedSeats(jdbc, seats);
+        sampler = distribution.sampler(seats);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetSeats() {
+        BenchmarkContext.resetSeats(jdbc);
+        soldSeatIndex.clear();
+        context.getBean(StringRedisTemplate.class).delete("flashtix:inventory:{" + BenchmarkContext.EVENT_ID + "}");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Ticket bookTicket() {
+        try {
+            return ticketService.bookTicket(seatIds[sampler.next()], userIds.getAndIncrement());
+        } catch (TicketBookingException | OptimisticLockingFailureException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Ticket processBookingInDatabase() {
+        try {
+            long userId = userIds.getAndIncrement();
+            // No seat lock here, so the user id doubles as an ever-growing fencing token
+            return ticketService.processBookingInDatabase(seatIds[sampler.next()], userId, userId);
+        } catch (TicketBookingException | OptimisticLockingFailureException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.flashtix.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.flashtix.backend.service.SoldSeatIndex;
+import com.flashtix.backend.service.TicketService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Open-loop load regression run for {@code bookTicket}, under the test profile (H2 and the local Redis).
+ * <p>
+ * Each scenario (a {@link SeatDistribution}) gets a warm-up, a seat reset, then {@code load.rate}
+ * arrivals per second for {@code load.duration-seconds}. The report goes to {@code load.report}.
+ * The run fails when more bookings succeed than there are seats or when over 1% of arrivals error or
+ * are dropped. It also fails when goodput (answers within {@code load.slo-ms}) or p99 regress against
+ * {@code load.baseline} by more than {@code load.tolerance} (plus {@code load.p99-slack-ms} on p99): a
+ * baseline only means something on the machine class it was recorded on, so slower hardware widens the
+ * slack rather than dropping the gate. {@code -Dload.fail-on-regression=false} only warns, for local runs.
+ * {@code -Dload.update-baseline=true} stores the report as the new baseline instead.
+ * Program arguments are extra Spring properties, e.g. {@code flashtix.booking.mode=inventory}.
+ */
+public final class LoadHarness {
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rate = Integer.getInteger("load.rate", 200);
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration-seconds", 30));
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 20));
+        int seats = Integer.getInteger("load.seats", 10_000);
+        int maxInFlight = Integer.getInteger("load.max-in-flight", 1000);
+        Duration slo = Duration.ofMillis(Long.getLong("load.slo-ms", 100));
+        boolean failOnRegression = Boolean.parseBoolean(System.getProperty("load.fail-on-regression", "true"));
+        double tolerance = Double.parseDouble(System.getProperty("load.tolerance", "0.5"));
+        double p99SlackMs = Double.parseDouble(System.getProperty("load.p99-slack-ms", "25"));
+        File reportFile = new File(System.getProperty("load.report", "target/load-report.json"));
+        File baselineFile = new File(System.getProperty("load.baseline", "src/test/resources/load-baseline.json"));
+        boolean updateBaseline = Boolean.getBoolean("load.update-baseline");
+        List<SeatDistribution> distributions = Arrays.stream(System.getProperty("load.scenarios", "HOT,ZIPF,UNIFORM").split(","))
+                .map(name -> SeatDistribution.valueOf(name.strip()))
+                .toList();
+
+        LoadReport report;
+        ConfigurableApplicationContext context = BenchmarkContext.start(args);
+        try {
+            TicketService ticketService = context.getBean(TicketService.class);
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            long[] seatIds = BenchmarkContext.seedSeats(jdbc, seats);
+
+            List<LoadReport.Scenario> scenarios = new ArrayList<>();
+            for (SeatDistribution distribution : distributions) {
+                SeatDistribution.Sampler sampler = distribution.sampler(seats);
+                long userBase = (distribution.ordinal() + 1) * 1_000_000_000L;
+
+                resetSeats(context, jdbc);
+                OpenLoopLoad.run(rate, warmup, slo, maxInFlight,
+                        i -> ticketService.bookTicket(seatIds[sampler.next()], userBase + i));
+                resetSeats(context, jdbc);
+                OpenLoopLoad.Result result = OpenLoopLoad.run(rate, duration, slo, maxInFlight,
+                        i -> ticketService.bookTicket(seatIds[sampler.next()], userBase + 500_000_000L + i));
+
+                LoadReport.Scenario scenario = LoadReport.Scenario.of(distribution.name(),
+                        distribution == SeatDistribution.HOT ? 1 : seats, rate, duration.toSeconds(), slo.toMillis(), result);
+                scenarios.add(scenario);
+                System.out.printf("%-8s goodput %8.1f/s  p50 %8.3f ms  p99 %8.3f ms  p99.9 %8.3f ms  max %8.3f ms  " +
+                                "ok %d  409 %d  errors %d  dropped %d%n",
+                        scenario.name(), scenario.goodput(), scenario.p50Ms(), scenario.p99Ms(),
+                        scenario.p999Ms(), scenario.maxMs(), scenario.succeeded(), scenario.rejected(),
+                        scenario.errors(), scenario.dropped());
+            }
+            report = new LoadReport(context.getEnvironment().getProperty("flashtix.booking.mode", "lock"),
+                    context.getEnvironment().getProperty("flashtix.lock.strategy", "redis"), scenarios);
+        } finally {
+            context.close();
+        }
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        reportFile.getAbsoluteFile().getParentFile().mkdirs();
+        mapper.writeValue(reportFile, report);
+        System.out.println("Load report written to " + reportFile);
+
+        List<String> failures = new ArrayList<>();
+        report.scenarios().forEach(scenario -> failures.addAll(scenario.violations()));
+        if (updateBaseline) {
+            mapper.writeValue(baselineFile, report);
+            System.out.println("Baseline updated: " + baselineFile);
+        } else if (baselineFile.exists()) {
+            List<String> regressions = report.regressionsAgainst(mapper.readValue(baselineFile, LoadReport.class),
+                    tolerance, p99SlackMs);
+            if (failOnRegression) {
+                failures.addAll(regressions);
+            } else {
+                regressions.forEach(regression -> System.out.println("WARNING " + regression));
+            }
+        } else {
+            System.out.println("No baseline at " + baselineFile + ", nothing to compare against");
+        }
+
+        failures.forEach(failure -> System.out.println("FAILED " + failure));
+        System.exit(failures.isEmpty() ? 0 : 1);
+    }
+
+    // Same reset as BookingBenchmark: every seat available, no sold-seat or inventory state left over
+    private static void resetSeats(ConfigurableApplicationContext context, JdbcTemplate jdbc) {
+        BenchmarkContext.resetSeats(jdbc);
+        context.getBean(SoldSeatIndex.class).clear();
+        context.getBean(StringRedisTemplate.class).delete("flashtix:inventory:{" + BenchmarkContext.EVENT_ID + "}");
+    }
+}
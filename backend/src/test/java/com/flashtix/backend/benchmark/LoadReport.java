@@ -0,0 +1,85 @@
+package com.flashtix.backend.benchmark;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Machine-readable result of a {@link LoadHarness} run, also the format of the stored baseline.
+ * Latencies are in milliseconds, goodput in attempts answered within {@code sloMs} per second.
+ */
+record LoadReport(String bookingMode, String lockStrategy, List<Scenario> scenarios) {
+
+    record Scenario(String name, int seats, int targetRate, long durationSeconds, long sloMs,
+                    long sent, long succeeded, long rejected, long errors, long dropped,
+                    double goodput, double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+
+        static Scenario of(String name, int seats, int targetRate, long durationSeconds, long sloMs,
+                           OpenLoopLoad.Result result) {
+            Histogram latency = result.latencyMicros();
+            return new Scenario(name, seats, targetRate, durationSeconds, sloMs,
+                    result.sent(), result.succeeded(), result.rejected(), result.errors(), result.dropped(),
+                    round(result.goodputPerSecond()),
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                    millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()));
+        }
+
+        // Problems that make the run itself invalid, whatever the baseline says
+        List<String> violations() {
+            List<String> violations = new ArrayList<>();
+            if (succeeded > seats) {
+                violations.add(name + ": " + succeeded + " bookings succeeded for " + seats + " seats");
+            }
+            if (errors + dropped > sent / 100) {
+                violations.add(name + ": " + errors + " errors and " + dropped + " dropped arrivals out of " + sent);
+            }
+            return violations;
+        }
+
+        boolean sameShapeAs(Scenario other) {
+            return seats == other.seats && targetRate == other.targetRate && durationSeconds == other.durationSeconds
+                    && sloMs == other.sloMs;
+        }
+    }
+
+    /**
+     * Goodput may drop and p99 may grow by {@code tolerance} (a fraction) before a scenario counts as
+     * regressed; p99 also gets an absolute slack so sub-millisecond baselines don't fail on noise.
+     * Scenarios run with a different mode, lock strategy, rate, size or SLO than the baseline are skipped.
+     * Only meaningful against a baseline recorded on the same class of machine.
+     */
+    List<String> regressionsAgainst(LoadReport baseline, double tolerance, double p99SlackMs) {
+        List<String> regressions = new ArrayList<>();
+        if (!bookingMode.equals(baseline.bookingMode) || !lockStrategy.equals(baseline.lockStrategy)) {
+            return regressions;
+        }
+        for (Scenario current : scenarios) {
+            Scenario base = baseline.scenarios.stream()
+                    .filter(s -> s.name().equals(current.name()) && s.sameShapeAs(current))
+                    .findFirst()
+                    .orElse(null);
+            if (base == null) {
+                continue;
+            }
+            if (current.goodput() < base.goodput() * (1 - tolerance)) {
+                regressions.add(String.format("%s: goodput %.1f/s within %d ms is below baseline %.1f/s",
+                        current.name(), current.goodput(), current.sloMs(), base.goodput()));
+            }
+            if (current.p99Ms() > base.p99Ms() * (1 + tolerance) + p99SlackMs) {
+                regressions.add(String.format("%s: p99 %.3f ms is above baseline %.3f ms",
+                        current.name(), current.p99Ms(), base.p99Ms()));
+            }
+        }
+        return regressions;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,75 @@
+package com.flashtix.backend.benchmark;
+
+import com.flashtix.backend.service.SeatLease;
+import com.flashtix.backend.service.SeatLockStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The seat lock on its own: one acquire attempt plus, when it succeeds, the release.
+ * Separates lock cost from DB cost when comparing locking changes, for each lock strategy.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class LockBenchmark {
+
+    @Param({"HOT", "UNIFORM", "ZIPF"})
+    public SeatDistribution distribution;
+
+    @Param({"10000"})
+    public int seats;
+
+    @Param({"redis", "local"})
+    public String lockStrategy;
+
+    private ConfigurableApplicationContext context;
+    private SeatLockStrategy seatLock;
+    private SeatDistribution.Sampler sampler;
+    private final AtomicLong owners = new AtomicLong(1);
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkContext.start("flashtix.lock.strategy=" + lockStrategy);
+        seatLock = context.getBean(SeatLockStrategy.class);
+        sampler = distribution.sampler(seats);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean acquireAndRelease() {
+        long ticketId = sampler.next();
+        long owner = owners.getAndIncrement();
+
+        SeatLease lease = seatLock.tryLock(BenchmarkContext.EVENT_ID, ticketId, owner);
+        if (lease != null) {
+            seatLock.unlock(lease);
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+package com.flashtix.backend.benchmark;
+
+import com.flashtix.backend.exception.TicketBookingException;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * Open-loop load: requests arrive on a fixed schedule whether or not earlier ones have finished,
+ * the way buyers do at an on-sale. Latency runs from each request's intended arrival time, so a
+ * stall is charged to every request that should have been sent during it (no coordinated omission).
+ * <p>
+ * Each arrival gets its own thread up to {@code maxInFlight}; arrivals beyond that are counted as
+ * dropped rather than queued, since queueing them would quietly turn the load closed-loop.
+ */
+final class OpenLoopLoad {
+
+    record Result(Histogram latencyMicros, long sent, long succeeded, long rejected, long errors,
+                  long dropped, long withinSlo, long elapsedNanos) {
+
+        /**
+         * Answers (success or 409) that came back within the SLO, per second. The arrival rate is fixed,
+         * so plain completions per second only ever equal it; this moves as soon as latency degrades.
+         */
+        double goodputPerSecond() {
+            return withinSlo / (elapsedNanos / 1e9);
+        }
+    }
+
+    private OpenLoopLoad() {
+    }
+
+    /**
+     * Sends {@code ratePerSecond * duration} attempts; {@code attempt} gets the request's sequence number.
+     * A return is a success, a {@link TicketBookingException} a rejection (409), anything else an error.
+     * Successes and rejections within {@code slo} of their intended arrival count towards goodput.
+     */
+    static Result run(int ratePerSecond, Duration duration, Duration slo, int maxInFlight, LongConsumer attempt)
+            throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long sloNanos = slo.toNanos();
+        long total = ratePerSecond * duration.toSeconds();
+
+        Recorder recorder = new Recorder(3);
+        LongAdder succeeded = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder errors = new LongAdder();
+        LongAdder withinSlo = new LongAdder();
+        long dropped = 0;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        ExecutorService workers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "load-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                dropped++;
+                continue;
+            }
+            long sequence = i;
+            workers.execute(() -> {
+                boolean answered = false;
+                try {
+                    attempt.accept(sequence);
+                    succeeded.increment();
+                    answered = true;
+                } catch (TicketBookingException e) {
+                    rejected.increment();
+                    answered = true;
+                } catch (RuntimeException e) {
+                    errors.increment();
+                } finally {
+                    long latency = System.nanoTime() - intended;
+                    if (answered && latency <= sloNanos) {
+                        withinSlo.increment();
+                    }
+                    recorder.recordValue(Math.max(1, latency / 1_000));
+                    inFlight.release();
+                }
+            });
+        }
+
+        workers.shutdown();
+        if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+            throw new IllegalStateException("Load attempts still running a minute after the last arrival");
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(recorder.getIntervalHistogram(), total, succeeded.sum(), rejected.sum(),
+                errors.sum(), dropped, withinSlo.sum(), elapsed);
+    }
+}
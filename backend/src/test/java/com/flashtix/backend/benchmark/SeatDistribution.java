@@ -0,0 +1,64 @@
+package com.flashtix.backend.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Contention profiles for picking which seat a request goes after.
+ * Sampling is allocation-free so it doesn't show up in {@code -prof gc} numbers.
+ */
+public enum SeatDistribution {
+
+    // Every request fights over the same seat (the 5,000-users-one-ticket attack)
+    HOT,
+    // Requests spread evenly over all seats
+    UNIFORM,
+    // A few front-row seats get most of the traffic (YCSB-style Zipf, exponent 0.99)
+    ZIPF;
+
+    public Sampler sampler(int seats) {
+        return switch (this) {
+            case HOT -> () -> 0;
+            case UNIFORM -> () -> ThreadLocalRandom.current().nextInt(seats);
+            case ZIPF -> new ZipfSampler(seats, 0.99);
+        };
+    }
+
+    // Returns a seat index in [0, seats)
+    @FunctionalInterface
+    public interface Sampler {
+        int next();
+    }
+
+    private static final class ZipfSampler implements Sampler {
+
+        private final double[] cumulative;
+
+        ZipfSampler(int seats, double exponent) {
+            cumulative = new double[seats];
+            double sum = 0;
+            for (int rank = 1; rank <= seats; rank++) {
+                sum += 1.0 / Math.pow(rank, exponent);
+                cumulative[rank - 1] = sum;
+            }
+            for (int i = 0; i < seats; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        @Override
+        public int next() {
+            double u = ThreadLocalRandom.current().nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}